@@ -0,0 +1,64 @@
+import javax.swing.SwingUtilities;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Runs AI decisions on a background thread so the EDT never waits for the AI,
+// however long it thinks. The AI gets a GameState snapshot, and its answer is
+// handed back on the EDT. cancel() abandons whatever is in flight: the task is
+// interrupted, and an answer that still arrives afterwards is thrown away. An
+// AI that fails is logged and the seat moves by its roll alone.
+public class AiWorker {
+    private final PowerUpAI ai;
+    private final ExecutorService executor;
+    private Future<?> pending; // only touched on the EDT
+    private int generation;    // bumped by cancel(); only touched on the EDT
+
+    public AiWorker(PowerUpAI ai) {
+        this.ai = ai;
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Starts deciding the power-up for the seat to move; call on the EDT
+    public void decide(GameState state, int diceRoll, Consumer<PowerUpAI.Decision> onDecided) {
+        cancel();
+        int requested = generation;
+        pending = executor.submit(() -> {
+            PowerUpAI.Decision decision;
+            try {
+                decision = ai.decide(state, diceRoll);
+            } catch (RuntimeException e) {
+                // The Future would keep the exception to itself and leave the turn waiting for good,
+                // so the seat plays its roll without a power-up instead
+                System.err.println("AI decision failed, moving without a power-up: " + e);
+                decision = new PowerUpAI.Decision(state.getCurrentPlayer(), diceRoll, 0, Double.NaN, Double.NaN, false);
+            }
+            PowerUpAI.Decision decided = decision;
+            SwingUtilities.invokeLater(() -> {
+                if (generation == requested) {
+                    pending = null;
+                    onDecided.accept(decided);
+                }
+            });
+        });
+    }
+
+    // Drops any decision not yet delivered; call on the EDT
+    public void cancel() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
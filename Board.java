@@ -0,0 +1,194 @@
+// Immutable board compiled once into flat arrays. destination(tile, roll)
+// already has teleport -> snake/ladder chains resolved, so a move costs one
+// array read plus one tile-type read for trap and power-up effects.
+public final class Board {
+    public static final int MAX_ROLL = 9; // 6 on the die plus a +3 power-up
+    private static final int STRIDE = MAX_ROLL + 1;
+
+    public static final byte PLAIN = 0;
+    public static final byte SNAKE = 1;
+    public static final byte LADDER = 2;
+    public static final byte TRAP = 3;
+    public static final byte TELEPORT = 4;
+    public static final byte POWER_UP = 5;
+
+    private final String name;
+    private final int size;
+    private final byte[] tileTypes;   // indexed by tile, 1..size
+    private final int[] targets;      // direct target of a snake, ladder or teleport tile
+    private final int[] resolved;     // final tile after following every jump from a tile
+    private final int[] destinations; // [tile * STRIDE + roll], overshooting rolls stay put
+    private final int[] powerUpTiles;
+    private final long fingerprint;
+
+    // tileTypes and targets are indexed by tile (1..size) and owned by the board afterwards
+    public Board(String name, int size, byte[] tileTypes, int[] targets) {
+        if (tileTypes.length != size + 1 || targets.length != size + 1) {
+            throw new IllegalArgumentException("Tile arrays must have size + 1 entries");
+        }
+        this.name = name;
+        this.size = size;
+        this.tileTypes = tileTypes;
+        this.targets = targets;
+
+        int powerUpCount = 0;
+        for (int tile = 1; tile <= size; tile++) {
+            if (isJump(tileTypes[tile]) && (targets[tile] < 1 || targets[tile] > size)) {
+                throw new IllegalArgumentException("Tile " + tile + " points outside the board to " + targets[tile]);
+            }
+            if (tileTypes[tile] == POWER_UP) powerUpCount++;
+        }
+        powerUpTiles = new int[powerUpCount];
+        for (int tile = 1, i = 0; tile <= size; tile++) {
+            if (tileTypes[tile] == POWER_UP) powerUpTiles[i++] = tile;
+        }
+
+        resolved = resolveJumps();
+        fingerprint = computeFingerprint();
+
+        destinations = new int[(size + 1) * STRIDE];
+        for (int tile = 1; tile <= size; tile++) {
+            for (int roll = 0; roll <= MAX_ROLL; roll++) {
+                int landing = tile + roll;
+                destinations[tile * STRIDE + roll] = landing > size ? tile : resolved[landing];
+            }
+        }
+        checkFinishable();
+    }
+
+    // Walks the die's moves backwards from the last tile, so a tile that snakes
+    // keep sending back forever is reported when the board loads instead of
+    // leaving a seat on it for good
+    private void checkFinishable() {
+        int[] first = new int[size + 2]; // moves into tile t are sources[first[t]..first[t + 1])
+        for (int tile = 1; tile < size; tile++) {
+            for (int roll = 1; roll <= 6 && tile + roll <= size; roll++) {
+                first[destination(tile, roll) + 1]++;
+            }
+        }
+        for (int tile = 1; tile <= size + 1; tile++) {
+            first[tile] += first[tile - 1];
+        }
+        int[] sources = new int[first[size + 1]];
+        int[] filled = first.clone();
+        for (int tile = 1; tile < size; tile++) {
+            for (int roll = 1; roll <= 6 && tile + roll <= size; roll++) {
+                sources[filled[destination(tile, roll)]++] = tile;
+            }
+        }
+
+        boolean[] finishable = new boolean[size + 1];
+        int[] queue = new int[size];
+        int head = 0, tail = 0;
+        finishable[size] = true;
+        queue[tail++] = size;
+        while (head < tail) {
+            int tile = queue[head++];
+            for (int i = first[tile]; i < first[tile + 1]; i++) {
+                if (!finishable[sources[i]]) {
+                    finishable[sources[i]] = true;
+                    queue[tail++] = sources[i];
+                }
+            }
+        }
+        for (int tile = 1; tile < size; tile++) {
+            if (!finishable[tile]) {
+                throw new IllegalArgumentException("Tile " + tile + " can never reach the end of the board");
+            }
+        }
+    }
+
+    // Follows every jump chain once, memoising as it goes, so the whole board
+    // resolves in linear time and any cycle of jumps is reported instead of hanging a game
+    private int[] resolveJumps() {
+        int[] result = new int[size + 1];
+        int[] path = new int[size];
+        for (int tile = 1; tile <= size; tile++) {
+            int length = 0;
+            int current = tile;
+            while (result[current] == 0 && isJump(tileTypes[current])) {
+                result[current] = -1; // on the current path
+                path[length++] = current;
+                current = targets[current];
+                if (result[current] == -1) {
+                    throw new IllegalArgumentException("Tile " + current + " is part of an endless loop of jumps");
+                }
+            }
+            int end = result[current] > 0 ? result[current] : current;
+            result[current] = end;
+            while (length > 0) {
+                result[path[--length]] = end;
+            }
+        }
+        return result;
+    }
+
+    // FNV-1a over the layout; the name is left out so a renamed file still matches
+    private long computeFingerprint() {
+        long hash = 0xCBF29CE484222325L;
+        hash = (hash ^ size) * 0x100000001B3L;
+        for (int tile = 1; tile <= size; tile++) {
+            hash = (hash ^ tileTypes[tile]) * 0x100000001B3L;
+            hash = (hash ^ targets[tile]) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static boolean isJump(byte type) {
+        return type == SNAKE || type == LADDER || type == TELEPORT;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Identifies the layout, so saved games and replays can check they belong to this board
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    // Final tile after rolling from a tile, with every jump already applied
+    public int destination(int tile, int roll) {
+        return destinations[tile * STRIDE + roll];
+    }
+
+    public int resolve(int tile) {
+        return resolved[tile];
+    }
+
+    public byte getType(int tile) {
+        return tile > 0 && tile <= size ? tileTypes[tile] : PLAIN;
+    }
+
+    public int getTarget(int tile) {
+        return targets[tile];
+    }
+
+    public boolean isSnake(int tile) {
+        return getType(tile) == SNAKE;
+    }
+
+    public boolean isLadder(int tile) {
+        return getType(tile) == LADDER;
+    }
+
+    public boolean isTrap(int tile) {
+        return getType(tile) == TRAP;
+    }
+
+    public boolean isTeleport(int tile) {
+        return getType(tile) == TELEPORT;
+    }
+
+    public boolean isPowerUp(int tile) {
+        return getType(tile) == POWER_UP;
+    }
+
+    public int[] getPowerUpTiles() {
+        return powerUpTiles.clone();
+    }
+}
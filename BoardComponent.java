@@ -0,0 +1,257 @@
+import javax.swing.JComponent;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+// Paints the whole board as one component. Tile numbers, grid lines and the
+// snake/ladder/trap/teleport/power-up icons (cut from one SpriteAtlas) are drawn
+// once into a cached image; each frame only blits that image and draws the player
+// tokens on top of it.
+// The cache is rebuilt when the component is resized or invalidateBackground()
+// is called (a power-up collected, a new round).
+public class BoardComponent extends JComponent {
+    private static final Color POWER_UP_BACKGROUND = new Color(255, 223, 0, 100); // Light gold background
+    private static final Color FINISHED_BACKGROUND = new Color(255, 215, 0); // Gold color
+    private static final Color TRAP_BACKGROUND = new Color(255, 235, 235);
+    private static final Color TELEPORT_BACKGROUND = new Color(230, 240, 255);
+    private static final BasicStroke TOKEN_OUTLINE = new BasicStroke(1f);
+
+    private final GameEngine engine;
+    private final Color[] playerColors;
+    private final int columns, rows;
+    // Where each token is drawn, in tiles; fractional while a token slides between tiles
+    private final double[] tokenPositions;
+    private SpriteAtlas sprites;
+    private BufferedImage background;
+
+    public BoardComponent(GameEngine engine, Color[] playerColors) {
+        this.engine = engine;
+        this.playerColors = playerColors;
+        int size = engine.getBoard().size();
+        columns = (int) Math.ceil(Math.sqrt(size));
+        rows = (size + columns - 1) / columns;
+        tokenPositions = new double[engine.getPlayerCount()];
+        syncTokens();
+        setPreferredSize(new Dimension(columns * 60, rows * 60));
+        setOpaque(true);
+    }
+
+    public void setSprites(SpriteAtlas atlas) {
+        sprites = atlas;
+        invalidateBackground();
+    }
+
+    // Drops the cached static layer; the next paint redraws it
+    public void invalidateBackground() {
+        background = null;
+        repaint();
+    }
+
+    // Puts every token back on the tile the engine says it is on
+    public void syncTokens() {
+        for (int seat = 0; seat < tokenPositions.length; seat++) {
+            tokenPositions[seat] = engine.getPosition(seat);
+        }
+        repaint();
+    }
+
+    public double getTokenPosition(int seat) {
+        return tokenPositions[seat];
+    }
+
+    // Moves one token and repaints just the area it left and the area it entered
+    public void setTokenPosition(int seat, double position) {
+        Rectangle before = tokenArea(tokenPositions[seat]);
+        tokenPositions[seat] = position;
+        Rectangle after = tokenArea(position);
+        repaint(before.union(after));
+    }
+
+    public void repaintTile(int tile) {
+        repaint(cellBounds(tile));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (background == null || background.getWidth() != width || background.getHeight() != height) {
+            background = renderBackground(width, height);
+        }
+        g.drawImage(background, 0, 0, null);
+
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        paintTokens(g2d);
+        g2d.dispose();
+    }
+
+    private BufferedImage renderBackground(int width, int height) {
+        // Match the screen's pixel format so the per-frame blit needs no conversion
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        BufferedImage image = config != null
+                ? config.createCompatibleImage(width, height, Transparency.OPAQUE)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.setColor(getParent() != null ? getParent().getBackground() : Color.LIGHT_GRAY);
+        g2d.fillRect(0, 0, width, height);
+
+        Board board = engine.getBoard();
+        g2d.setFont(new Font("Arial", Font.PLAIN, Math.max(9, Math.min(width / columns, height / rows) / 5)));
+        FontMetrics metrics = g2d.getFontMetrics();
+        for (int tile = 1; tile <= board.size(); tile++) {
+            Rectangle cell = cellBounds(tile);
+            byte type = board.getType(tile);
+            boolean powerUp = engine.isPowerUpAvailable(tile);
+
+            g2d.setColor(type == Board.TRAP ? TRAP_BACKGROUND
+                    : type == Board.TELEPORT ? TELEPORT_BACKGROUND
+                    : Color.WHITE);
+            g2d.fillRect(cell.x, cell.y, cell.width, cell.height);
+            if (powerUp) {
+                g2d.setColor(POWER_UP_BACKGROUND);
+                g2d.fillRect(cell.x, cell.y, cell.width, cell.height);
+            }
+
+            int icon = iconFor(tile, type, powerUp);
+            if (icon >= 0) {
+                int iconSize = Math.min(cell.width, cell.height) * 3 / 4;
+                sprites.draw(g2d, icon, cell.x + (cell.width - iconSize) / 2, cell.y + cell.height - iconSize - 2,
+                        iconSize, iconSize);
+            }
+
+            g2d.setColor(Color.BLACK);
+            g2d.drawRect(cell.x, cell.y, cell.width - 1, cell.height - 1);
+            String number = String.valueOf(tile);
+            g2d.drawString(number, cell.x + (cell.width - metrics.stringWidth(number)) / 2, cell.y + metrics.getAscent() + 1);
+        }
+        g2d.dispose();
+        return image;
+    }
+
+    // Index of the tile's sprite in the atlas, or -1 for none
+    private int iconFor(int tile, byte type, boolean powerUpAvailable) {
+        if (sprites == null) {
+            return -1;
+        }
+        switch (type) {
+            case Board.LADDER:
+                return SpriteAtlas.LADDERS + tile % SpriteAtlas.VARIANTS;
+            case Board.SNAKE:
+                return SpriteAtlas.SNAKES + tile % SpriteAtlas.VARIANTS;
+            case Board.TRAP:
+                return SpriteAtlas.TRAP;
+            case Board.TELEPORT:
+                return SpriteAtlas.TELEPORT;
+            case Board.POWER_UP:
+                return powerUpAvailable ? SpriteAtlas.POWER_UP : -1;
+            default:
+                return -1;
+        }
+    }
+
+    private void paintTokens(Graphics2D g2d) {
+        Rectangle clip = g2d.getClipBounds();
+        int finalTile = engine.getBoard().size();
+
+        // The finishing tile turns gold once anyone has arrived there
+        for (int seat = 0; seat < tokenPositions.length; seat++) {
+            if (engine.isFinished(seat) && tokenPositions[seat] == finalTile) {
+                Rectangle cell = cellBounds(finalTile);
+                g2d.setColor(FINISHED_BACKGROUND);
+                g2d.fillRect(cell.x + 1, cell.y + 1, cell.width - 2, cell.height - 2);
+                break;
+            }
+        }
+
+        for (int seat = 0; seat < tokenPositions.length; seat++) {
+            double position = tokenPositions[seat];
+            Rectangle area = tokenArea(position);
+            if (clip != null && !clip.intersects(area)) {
+                continue;
+            }
+
+            boolean finished = engine.isFinished(seat) && position == engine.getPosition(seat);
+
+            // Tokens sharing a tile sit side by side; a sliding token glides between cell centres
+            int diameter = tokenDiameter();
+            int x, y;
+            int lower = (int) Math.floor(position);
+            if (position == lower) {
+                int slot = slotOnTile(seat, position);
+                int perRow = Math.max(1, area.width / diameter);
+                x = area.x + (slot % perRow) * diameter;
+                y = area.y + area.height - diameter * (1 + slot / perRow);
+            } else {
+                Rectangle from = cellBounds(lower);
+                Rectangle to = cellBounds(lower + 1);
+                double fraction = position - lower;
+                x = (int) (from.getCenterX() + (to.getCenterX() - from.getCenterX()) * fraction) - diameter / 2;
+                y = (int) (from.getCenterY() + (to.getCenterY() - from.getCenterY()) * fraction) - diameter / 2;
+            }
+
+            g2d.setColor(playerColors[seat]);
+            g2d.fillOval(x, y, diameter, diameter);
+            g2d.setColor(Color.BLACK);
+            g2d.setStroke(TOKEN_OUTLINE);
+            g2d.drawOval(x, y, diameter, diameter);
+            if (finished) {
+                String rank = String.valueOf(engine.getRank(seat));
+                FontMetrics metrics = g2d.getFontMetrics();
+                g2d.drawString(rank, x + (diameter - metrics.stringWidth(rank)) / 2,
+                        y + (diameter + metrics.getAscent()) / 2 - 2);
+            }
+        }
+    }
+
+    private int slotOnTile(int seat, double position) {
+        int slot = 0;
+        for (int other = 0; other < seat; other++) {
+            if (tokenPositions[other] == position) {
+                slot++;
+            }
+        }
+        return slot;
+    }
+
+    private int tokenDiameter() {
+        return Math.max(6, Math.min(getWidth() / columns, getHeight() / rows) / 3);
+    }
+
+    // The cell a token is on, or the box spanning the two cells it is sliding between
+    private Rectangle tokenArea(double position) {
+        int lower = (int) Math.floor(position);
+        Rectangle area = cellBounds(lower);
+        if (position != lower) {
+            area = area.union(cellBounds(lower + 1));
+        }
+        return area;
+    }
+
+    public Rectangle cellBounds(int tile) {
+        int index = Math.max(1, Math.min(tile, engine.getBoard().size())) - 1;
+        int rowFromBottom = index / columns;
+        int offset = index % columns;
+        int column = rowFromBottom % 2 == 0 ? offset : columns - 1 - offset;
+        int row = rows - 1 - rowFromBottom;
+        int x0 = column * getWidth() / columns;
+        int x1 = (column + 1) * getWidth() / columns;
+        int y0 = row * getHeight() / rows;
+        int y1 = (row + 1) * getHeight() / rows;
+        return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+    }
+}
@@ -0,0 +1,218 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Reads board definition files. One entry per line, '#' starts a comment:
+//
+//   size 100
+//   snake 17 7
+//   ladder 4 25
+//   trap 29
+//   teleport 11 21
+//   powerup 26
+//
+// Files are scanned byte by byte straight into the Board's arrays, so loading and
+// validating a board costs one pass over the file and one pass over its tiles.
+public final class BoardLoader {
+    public static final String CLASSIC_BOARD = "classic.board";
+    public static final int MAX_SIZE = 1_000_000;
+
+    private BoardLoader() {
+    }
+
+    // Loads the bundled layout from the working directory, falling back to the classpath
+    public static Board loadClassic() throws IOException {
+        Path file = Paths.get(CLASSIC_BOARD);
+        if (Files.exists(file)) {
+            return load(file);
+        }
+        try (InputStream in = BoardLoader.class.getResourceAsStream("/" + CLASSIC_BOARD)) {
+            if (in == null) {
+                throw new IOException("Board definition " + CLASSIC_BOARD + " not found");
+            }
+            return parse(CLASSIC_BOARD, in.readAllBytes());
+        }
+    }
+
+    public static Board load(Path file) throws IOException {
+        return parse(file.getFileName().toString(), Files.readAllBytes(file));
+    }
+
+    // Loads every *.board file in a directory, in parallel, sorted by file name
+    public static List<Board> loadAll(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.board")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+
+        Board[] boards = new Board[files.size()];
+        IOException[] failure = new IOException[1];
+        IntStream.range(0, boards.length).parallel().forEach(i -> {
+            try {
+                boards[i] = load(files.get(i));
+            } catch (IOException e) {
+                synchronized (failure) {
+                    failure[0] = e;
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return List.of(boards);
+    }
+
+    public static Board parse(String name, byte[] data) {
+        Parser parser = new Parser(name, data);
+        return parser.parse();
+    }
+
+    private static final class Parser {
+        private final String name;
+        private final byte[] data;
+        private int pos;
+        private int line = 1;
+        private int size;
+        private byte[] types;
+        private int[] targets;
+        private int[] definedOnLine;
+
+        Parser(String name, byte[] data) {
+            this.name = name;
+            this.data = data;
+        }
+
+        Board parse() {
+            while (skipBlank()) {
+                int keywordStart = pos;
+                while (pos < data.length && isWordChar(data[pos])) pos++;
+                String keyword = new String(data, keywordStart, pos - keywordStart, StandardCharsets.US_ASCII);
+
+                switch (keyword) {
+                    case "size":
+                        if (types != null) throw error("size must be given once, before any tiles");
+                        size = readNumber();
+                        if (size < 2 || size > MAX_SIZE) throw error("size must be between 2 and " + MAX_SIZE);
+                        types = new byte[size + 1];
+                        targets = new int[size + 1];
+                        definedOnLine = new int[size + 1];
+                        break;
+                    case "snake": {
+                        int from = readTile();
+                        int to = readTarget();
+                        if (to >= from) throw error("snake at " + from + " must lead down, not to " + to);
+                        define(from, Board.SNAKE, to);
+                        break;
+                    }
+                    case "ladder": {
+                        int from = readTile();
+                        int to = readTarget();
+                        if (to <= from) throw error("ladder at " + from + " must lead up, not to " + to);
+                        define(from, Board.LADDER, to);
+                        break;
+                    }
+                    case "teleport": {
+                        int from = readTile();
+                        int to = readTarget();
+                        if (to == from) throw error("teleport at " + from + " leads to itself");
+                        define(from, Board.TELEPORT, to);
+                        break;
+                    }
+                    case "trap":
+                        define(readTile(), Board.TRAP, 0);
+                        break;
+                    case "powerup":
+                        define(readTile(), Board.POWER_UP, 0);
+                        break;
+                    default:
+                        throw error("unknown entry '" + keyword + "'");
+                }
+                expectEndOfLine();
+            }
+            if (types == null) throw error("missing size");
+
+            try {
+                return new Board(name, size, types, targets);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(name + ": " + e.getMessage(), e);
+            }
+        }
+
+        private void define(int tile, byte type, int target) {
+            if (types[tile] != Board.PLAIN) {
+                throw error("tile " + tile + " is already used on line " + definedOnLine[tile]);
+            }
+            types[tile] = type;
+            targets[tile] = target;
+            definedOnLine[tile] = line;
+        }
+
+        // Specials may not sit on the start tile or the finishing tile
+        private int readTile() {
+            if (types == null) throw error("size must be given before any tiles");
+            int tile = readNumber();
+            if (tile < 2 || tile >= size) throw error("tile " + tile + " is outside 2.." + (size - 1));
+            return tile;
+        }
+
+        private int readTarget() {
+            int tile = readNumber();
+            if (tile < 1 || tile > size) throw error("target " + tile + " is outside 1.." + size);
+            return tile;
+        }
+
+        private int readNumber() {
+            while (pos < data.length && (data[pos] == ' ' || data[pos] == '\t')) pos++;
+            int start = pos;
+            long value = 0;
+            while (pos < data.length && data[pos] >= '0' && data[pos] <= '9') {
+                value = value * 10 + (data[pos++] - '0');
+                if (value > Integer.MAX_VALUE) throw error("number too large");
+            }
+            if (pos == start) throw error("expected a number");
+            return (int) value;
+        }
+
+        private void expectEndOfLine() {
+            while (pos < data.length && (data[pos] == ' ' || data[pos] == '\t' || data[pos] == '\r')) pos++;
+            if (pos < data.length && data[pos] == '#') {
+                while (pos < data.length && data[pos] != '\n') pos++;
+            }
+            if (pos < data.length && data[pos] != '\n') throw error("unexpected text after entry");
+        }
+
+        // Skips whitespace, blank lines and comments; returns false at end of file
+        private boolean skipBlank() {
+            while (pos < data.length) {
+                byte b = data[pos];
+                if (b == '\n') {
+                    line++;
+                    pos++;
+                } else if (b == ' ' || b == '\t' || b == '\r') {
+                    pos++;
+                } else if (b == '#') {
+                    while (pos < data.length && data[pos] != '\n') pos++;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isWordChar(byte b) {
+            return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(name + ":" + line + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+// Seeded six-sided die built on SplitMix64. The whole generator is one long,
+// so it can be saved with a game and restored exactly, and every roll consumes
+// exactly one step: the state after n rolls is seed + n * GAMMA.
+public final class Dice {
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public Dice(long seed) {
+        state = seed;
+    }
+
+    // Independent stream for game n of a batch seeded with seed. Each game depends
+    // only on (seed, n), so splitting a batch across any number of threads, in any
+    // order, rolls exactly the same dice.
+    public static Dice forGame(long seed, long game) {
+        return new Dice(gameSeed(seed, game));
+    }
+
+    // Start state of game n's stream: output n of a SplitMix64 generator seeded with seed
+    public static long gameSeed(long seed, long game) {
+        return mix(seed + (game + 1) * GAMMA);
+    }
+
+    public int roll() {
+        // Top 32 bits scaled to 0..5; the bias is below one in 700 million
+        return (int) (((nextLong() >>> 32) * 6) >>> 32) + 1;
+    }
+
+    public long nextLong() {
+        return mix(state += GAMMA);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+}
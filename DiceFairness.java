@@ -0,0 +1,242 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Rolls billions of dice through the same per-game streams the simulator uses,
+// on every core, and checks them for fairness:
+//
+//   faces         chi-squared of the six face counts (5 degrees of freedom)
+//   serial pairs  chi-squared of non-overlapping pairs within a stream (35)
+//   cross pairs   chi-squared of the n-th rolls of neighbouring games (35),
+//                 which catches streams that track each other
+//   runs          number of face changes between consecutive rolls, as a z-score
+//
+// A test fails when its p-value is below ALPHA. The streams are fixed by
+// (--seed, game), so every thread count produces the same counts; the printed
+// fingerprint makes that easy to check.
+public class DiceFairness {
+    private static final int STREAM_ROLLS = 1 << 22; // rolls taken from each game's stream
+    private static final double ALPHA = 0.001;
+
+    // Counts from one pair of neighbouring streams, or the sum of many
+    static final class Counts {
+        final long[] faces = new long[6];
+        final long[] serialPairs = new long[36];
+        final long[] crossPairs = new long[36];
+        long changes;     // consecutive rolls that differ
+        long transitions; // consecutive rolls compared
+
+        void add(Counts other) {
+            for (int i = 0; i < 6; i++) faces[i] += other.faces[i];
+            for (int i = 0; i < 36; i++) {
+                serialPairs[i] += other.serialPairs[i];
+                crossPairs[i] += other.crossPairs[i];
+            }
+            changes += other.changes;
+            transitions += other.transitions;
+        }
+
+        long fingerprint() {
+            long hash = 0xCBF29CE484222325L;
+            for (long[] table : new long[][] {faces, serialPairs, crossPairs, {changes, transitions}}) {
+                for (long count : table) {
+                    hash = (hash ^ count) * 0x100000001B3L;
+                }
+            }
+            return hash;
+        }
+    }
+
+    // Usage: DiceFairness [--rolls=N] [--seed=N] [--threads=N]
+    public static void main(String[] args) {
+        long rolls = 1_000_000_000L;
+        long seed = new Random().nextLong();
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--rolls=")) {
+                    rolls = Long.parseLong(arg.substring("--rolls=".length()));
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(arg.substring("--seed=".length()));
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } else {
+                    throw new IllegalArgumentException("Unknown argument " + arg);
+                }
+            }
+            if (rolls < 2L * STREAM_ROLLS || threads < 1) {
+                throw new IllegalArgumentException("--rolls must be at least " + 2L * STREAM_ROLLS + " and --threads positive");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Could not start the fairness run: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        long streamPairs = rolls / (2L * STREAM_ROLLS);
+        System.out.println("Rolling " + streamPairs * 2 * STREAM_ROLLS + " dice from " + streamPairs * 2
+                + " game streams on " + threads + " threads, seed " + seed);
+        long started = System.nanoTime();
+        Counts counts = run(seed, streamPairs, threads);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long total = countRolls(counts);
+        System.out.printf("%.2f s, %.0f million rolls/s, fingerprint %016x%n%n", seconds, total / seconds / 1e6, counts.fingerprint());
+
+        boolean fair = report(counts);
+        System.out.println(fair ? "✅ The dice look fair" : "❌ The dice failed at least one test");
+        System.exit(fair ? 0 : 1);
+    }
+
+    public static Counts run(long seed, long streamPairs, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dice-fairness");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Counts>> parts = new ArrayList<>();
+            for (long pair = 0; pair < streamPairs; pair++) {
+                long first = 2 * pair;
+                parts.add(pool.submit(() -> rollPair(Dice.forGame(seed, first), Dice.forGame(seed, first + 1))));
+            }
+            Counts total = new Counts();
+            for (Future<Counts> part : parts) {
+                total.add(part.get());
+            }
+            return total;
+        } catch (Exception e) {
+            throw new IllegalStateException("Fairness run failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Rolls two neighbouring streams in lockstep
+    static Counts rollPair(Dice left, Dice right) {
+        Counts counts = new Counts();
+        int previousLeft = left.roll() - 1, previousRight = right.roll() - 1;
+        counts.faces[previousLeft]++;
+        counts.faces[previousRight]++;
+        counts.crossPairs[previousLeft * 6 + previousRight]++;
+        for (int i = 1; i < STREAM_ROLLS; i++) {
+            int a = left.roll() - 1, b = right.roll() - 1;
+            counts.faces[a]++;
+            counts.faces[b]++;
+            counts.crossPairs[a * 6 + b]++;
+            if ((i & 1) == 1) {
+                counts.serialPairs[previousLeft * 6 + a]++;
+                counts.serialPairs[previousRight * 6 + b]++;
+            }
+            if (a != previousLeft) counts.changes++;
+            if (b != previousRight) counts.changes++;
+            previousLeft = a;
+            previousRight = b;
+        }
+        counts.transitions = 2L * (STREAM_ROLLS - 1);
+        return counts;
+    }
+
+    private static long countRolls(Counts counts) {
+        long total = 0;
+        for (long count : counts.faces) total += count;
+        return total;
+    }
+
+    private static boolean report(Counts counts) {
+        long total = countRolls(counts);
+        System.out.println("Face   Count          Share");
+        for (int face = 0; face < 6; face++) {
+            System.out.printf("%-6d %-14d %.6f%%%n", face + 1, counts.faces[face], 100.0 * counts.faces[face] / total);
+        }
+        System.out.println();
+
+        boolean fair = true;
+        fair &= check("faces", chiSquared(counts.faces), 5);
+        fair &= check("serial pairs", chiSquared(counts.serialPairs), 35);
+        fair &= check("cross pairs", chiSquared(counts.crossPairs), 35);
+
+        // For fair dice each comparison differs with probability 5/6, independently of its neighbours
+        double expected = counts.transitions * 5.0 / 6.0;
+        double z = (counts.changes - expected) / Math.sqrt(counts.transitions * 5.0 / 36.0);
+        double p = upperGamma(0.5, z * z / 2);
+        System.out.printf("  %-13s z = %8.3f            p = %.4f  %s%n", "runs", z, p, p < ALPHA ? "FAIL" : "ok");
+        fair &= p >= ALPHA;
+        System.out.println();
+        return fair;
+    }
+
+    private static boolean check(String name, double statistic, int degrees) {
+        double p = upperGamma(degrees / 2.0, statistic / 2);
+        System.out.printf("  %-13s chi2 = %8.3f (%2d df)  p = %.4f  %s%n", name, statistic, degrees, p, p < ALPHA ? "FAIL" : "ok");
+        return p >= ALPHA;
+    }
+
+    // Chi-squared statistic against equally likely cells
+    static double chiSquared(long[] observed) {
+        long total = 0;
+        for (long count : observed) total += count;
+        double expected = (double) total / observed.length;
+        double sum = 0;
+        for (long count : observed) {
+            double difference = count - expected;
+            sum += difference * difference / expected;
+        }
+        return sum;
+    }
+
+    // Regularized upper incomplete gamma function Q(a, x): the chi-squared p-value with
+    // a = df/2 and x = chi2/2, and the two-sided normal p-value with a = 1/2 and x = z*z/2
+    static double upperGamma(double a, double x) {
+        if (x <= 0) {
+            return 1;
+        }
+        double logPrefix = a * Math.log(x) - x - logGamma(a);
+        if (x < a + 1) {
+            // Series for the lower function P, then Q = 1 - P
+            double term = 1 / a, sum = term;
+            for (int n = 1; n < 1000 && Math.abs(term) > Math.abs(sum) * 1e-15; n++) {
+                term *= x / (a + n);
+                sum += term;
+            }
+            return Math.max(0, 1 - sum * Math.exp(logPrefix));
+        }
+        // Continued fraction for Q, evaluated with the modified Lentz method
+        double tiny = 1e-300;
+        double b = x + 1 - a, c = 1 / tiny, d = 1 / b, fraction = d;
+        for (int n = 1; n < 1000; n++) {
+            double an = -n * (n - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = b + an / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            double step = d * c;
+            fraction *= step;
+            if (Math.abs(step - 1) < 1e-15) {
+                break;
+            }
+        }
+        return Math.exp(logPrefix) * fraction;
+    }
+
+    // Lanczos approximation, accurate to about 15 digits for a > 0
+    private static double logGamma(double a) {
+        double[] coefficients = {676.5203681218851, -1259.1392167224028, 771.32342877765313,
+                -176.61502916214059, 12.507343278686905, -0.13857109526572012,
+                9.9843695780195716e-6, 1.5056327351493116e-7};
+        if (a < 0.5) {
+            return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * a))) - logGamma(1 - a);
+        }
+        a -= 1;
+        double sum = 0.99999999999980993;
+        for (int i = 0; i < coefficients.length; i++) {
+            sum += coefficients[i] / (a + i + 1);
+        }
+        double t = a + coefficients.length - 0.5;
+        return 0.5 * Math.log(2 * Math.PI) + (a + 0.5) * Math.log(t) - t + Math.log(sum);
+    }
+}
@@ -0,0 +1,138 @@
+import javax.swing.JComponent;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+
+// Line chart of P(finished within k turns) against k, one curve per seat, as
+// computed by TurnDistribution. The x axis runs to the turn by which every
+// shown seat has finished with 99% probability; the legend lists each seat's
+// median and 90th percentile.
+public class DistributionChart extends JComponent {
+    private static final int MARGIN_LEFT = 48, MARGIN_RIGHT = 16, MARGIN_TOP = 16, MARGIN_BOTTOM = 36;
+    private static final double SHOWN_QUANTILE = 0.99;
+    private static final Color GRID = new Color(225, 225, 225);
+    private static final BasicStroke CURVE = new BasicStroke(2f);
+
+    private double[][] cumulative = new double[0][];
+    private Color[] colors = new Color[0];
+    private String[] names = new String[0];
+
+    public DistributionChart() {
+        setPreferredSize(new Dimension(520, 320));
+        setFont(new Font("Arial", Font.PLAIN, 12));
+    }
+
+    // One cumulative distribution per curve; a null entry leaves that curve out
+    public void setSeries(double[][] cumulative, Color[] colors, String[] names) {
+        this.cumulative = cumulative;
+        this.colors = colors;
+        this.names = names;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, getWidth(), getHeight());
+
+        int plotWidth = getWidth() - MARGIN_LEFT - MARGIN_RIGHT;
+        int plotHeight = getHeight() - MARGIN_TOP - MARGIN_BOTTOM;
+        if (plotWidth <= 0 || plotHeight <= 0) {
+            g2d.dispose();
+            return;
+        }
+        int maxTurn = 1;
+        for (double[] series : cumulative) {
+            if (series != null) {
+                int shown = TurnDistribution.quantile(series, SHOWN_QUANTILE);
+                maxTurn = Math.max(maxTurn, shown < 0 ? series.length - 1 : shown);
+            }
+        }
+
+        paintAxes(g2d, plotWidth, plotHeight, maxTurn);
+
+        g2d.setStroke(CURVE);
+        for (int i = 0; i < cumulative.length; i++) {
+            double[] series = cumulative[i];
+            if (series == null) {
+                continue;
+            }
+            Path2D.Double curve = new Path2D.Double();
+            int last = Math.min(maxTurn, series.length - 1);
+            for (int turn = 0; turn <= last; turn++) {
+                double x = MARGIN_LEFT + (double) plotWidth * turn / maxTurn;
+                double y = MARGIN_TOP + plotHeight * (1 - series[turn]);
+                if (turn == 0) curve.moveTo(x, y); else curve.lineTo(x, y);
+            }
+            g2d.setColor(colors[i]);
+            g2d.draw(curve);
+        }
+
+        paintLegend(g2d);
+        g2d.dispose();
+    }
+
+    private void paintAxes(Graphics2D g2d, int plotWidth, int plotHeight, int maxTurn) {
+        FontMetrics metrics = g2d.getFontMetrics();
+        for (int percent = 0; percent <= 100; percent += 25) {
+            int y = MARGIN_TOP + plotHeight * (100 - percent) / 100;
+            g2d.setColor(GRID);
+            g2d.drawLine(MARGIN_LEFT, y, MARGIN_LEFT + plotWidth, y);
+            g2d.setColor(Color.DARK_GRAY);
+            String label = percent + "%";
+            g2d.drawString(label, MARGIN_LEFT - 6 - metrics.stringWidth(label), y + metrics.getAscent() / 2);
+        }
+
+        int step = niceStep(maxTurn);
+        for (int turn = 0; turn <= maxTurn; turn += step) {
+            int x = MARGIN_LEFT + plotWidth * turn / maxTurn;
+            g2d.setColor(GRID);
+            g2d.drawLine(x, MARGIN_TOP, x, MARGIN_TOP + plotHeight);
+            g2d.setColor(Color.DARK_GRAY);
+            String label = String.valueOf(turn);
+            g2d.drawString(label, x - metrics.stringWidth(label) / 2, MARGIN_TOP + plotHeight + metrics.getAscent() + 4);
+        }
+        g2d.drawRect(MARGIN_LEFT, MARGIN_TOP, plotWidth, plotHeight);
+        String title = "Turns";
+        g2d.drawString(title, MARGIN_LEFT + (plotWidth - metrics.stringWidth(title)) / 2, getHeight() - 4);
+    }
+
+    // A 1, 2 or 5 times a power of ten that gives at most about ten grid lines
+    private static int niceStep(int range) {
+        int step = 1;
+        while (true) {
+            for (int factor : new int[] {1, 2, 5}) {
+                if (range / (step * factor) <= 10) {
+                    return step * factor;
+                }
+            }
+            step *= 10;
+        }
+    }
+
+    private void paintLegend(Graphics2D g2d) {
+        FontMetrics metrics = g2d.getFontMetrics();
+        int x = MARGIN_LEFT + 8;
+        int y = MARGIN_TOP + metrics.getHeight();
+        for (int i = 0; i < cumulative.length; i++) {
+            double[] series = cumulative[i];
+            if (series == null) {
+                continue;
+            }
+            g2d.setColor(colors[i]);
+            g2d.fillRect(x, y - metrics.getAscent() + 2, 10, 10);
+            g2d.setColor(Color.BLACK);
+            g2d.drawString(names[i] + ": median " + TurnDistribution.quantile(series, 0.5)
+                    + " turns, 90% within " + TurnDistribution.quantile(series, 0.9), x + 16, y);
+            y += metrics.getHeight();
+        }
+    }
+}
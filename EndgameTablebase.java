@@ -0,0 +1,508 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Solved endgames: once every seat still playing stands past the threshold
+// tile, the table gives each seat's exact chance of finishing first and the
+// best power-up bonus for every roll, taking everyone's tile, power-ups held
+// and pending trap skips into account. Every seat is assumed to play for its
+// own win.
+//
+// A position is stored from the point of view of the seat to move: seat 0 is
+// the mover and the rest follow in turn order. Each seat is one code of
+// (tile, skip pending, power-ups held), and a position with k seats is the
+// base-RADIX number of its k codes. An entry is k shorts: the win chances of
+// the first k - 1 seats in 1/65535 steps (the last seat gets the rest), then
+// two bits per roll for the best bonus.
+//
+// A seat holds at most MAX_HELD power-ups in the table; a position where one
+// holds more is not covered, and the AI plays it without the table.
+//
+// Tables for 2 to MAX_SEATS seats live in one file that is memory-mapped read
+// only and shared by every game and AI in the JVM through shared(board), so a
+// lookup is a few multiplications and one read. Boards with power-up tiles
+// past the threshold are rejected, since collecting one would need the whole
+// board in the position.
+//
+// A move that drops below the threshold (down a snake) leaves the solved zone.
+// From there the seats are treated as racing independently without power-ups,
+// using their exact TurnDistributions, which is the one approximation made.
+//
+// Build a table with: EndgameTablebase [--threshold=N] [--seats=N] [--threads=N] [board-file]
+public final class EndgameTablebase {
+    public static final int DEFAULT_THRESHOLD = 80;
+    public static final int MAX_SEATS = 3;
+    public static final int MAX_HELD = 3;
+    public static final String DIRECTORY = "tablebase";
+    private static final int MAGIC = 0x534C5442; // "SLTB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final double SCALE = 65535;
+    private static final double TOLERANCE = 1e-12;
+    private static final Map<Long, Optional<EndgameTablebase>> SHARED = new ConcurrentHashMap<>();
+
+    private final Board board;
+    private final int threshold;
+    private final int maxHeld;
+    private final int maxSeats;
+    private final int radix;      // codes per seat
+    private final long[] offsets; // byte offset of each seat count's table
+    private final ByteBuffer table;
+
+    private EndgameTablebase(Board board, int threshold, int maxHeld, int maxSeats, ByteBuffer table) {
+        this.board = board;
+        this.threshold = threshold;
+        this.maxHeld = maxHeld;
+        this.maxSeats = maxSeats;
+        this.table = table;
+        radix = radix(board, threshold, maxHeld);
+        offsets = new long[maxSeats + 1];
+        long offset = HEADER_SIZE;
+        for (int seats = 2; seats <= maxSeats; seats++) {
+            offsets[seats] = offset;
+            offset += positions(radix, seats) * 2L * seats;
+        }
+        if (table.capacity() != offset) {
+            throw new IllegalArgumentException("Tablebase file has " + table.capacity() + " bytes, expected " + offset);
+        }
+    }
+
+    private static int radix(Board board, int threshold, int maxHeld) {
+        return (board.size() - 1 - threshold) * 2 * (maxHeld + 1);
+    }
+
+    private static long positions(int radix, int seats) {
+        long count = 1;
+        for (int i = 0; i < seats; i++) count *= radix;
+        return count;
+    }
+
+    private static int heldLimit(Board board) {
+        return Math.min(MAX_HELD, board.getPowerUpTiles().length);
+    }
+
+    public static Path fileFor(Board board) {
+        return Paths.get(DIRECTORY, String.format("%016x.sltb", board.fingerprint()));
+    }
+
+    // The board's table, mapped the first time any game asks for it; null if it was never built
+    public static EndgameTablebase shared(Board board) {
+        return SHARED.computeIfAbsent(board.fingerprint(), fingerprint -> {
+            Path file = fileFor(board);
+            if (!Files.exists(file)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(open(board, file));
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Endgame tablebase not used: " + e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    public static EndgameTablebase open(Board board, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (table.capacity() < HEADER_SIZE || table.getInt(0) != MAGIC || table.getInt(4) != VERSION) {
+                throw new IllegalArgumentException(file + " is not an endgame tablebase");
+            }
+            if (table.getLong(8) != board.fingerprint()) {
+                throw new IllegalArgumentException(file + " was built for a different board");
+            }
+            return new EndgameTablebase(board, table.getInt(16), table.getInt(20), table.getInt(24), table);
+        }
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    // True when every unfinished seat is inside the solved zone, holds no more power-ups
+    // than the table tells apart, and the table has their count
+    public boolean covers(GameState state) {
+        return find(state) >= 0;
+    }
+
+    // The seat's chance of finishing before every other unfinished seat, or NaN if not covered
+    public double winProbability(GameState state, int seat) {
+        long found = find(state);
+        if (found < 0 || state.isFinished(seat)) {
+            return Double.NaN;
+        }
+        int seats = (int) (found & 7);
+        // How many turns after the mover this seat moves
+        int place = 0;
+        for (int other = state.getCurrentPlayer(); other != seat; other = (other + 1) % state.getPlayerCount()) {
+            if (!state.isFinished(other)) place++;
+        }
+        return stored(seats, found >>> 3, place);
+    }
+
+    // The bonus (0 to 3) the seat to move should add to this roll, or -1 if not covered
+    public int bestBonus(GameState state, int roll) {
+        long found = find(state);
+        if (found < 0) {
+            return -1;
+        }
+        int seats = (int) (found & 7);
+        long index = found >>> 3;
+        int policy = table.getShort((int) (offsets[seats] + (index * seats + seats - 1) * 2)) & 0xFFFF;
+        return (policy >>> 2 * (roll - 1)) & 3;
+    }
+
+    private double stored(int seats, long index, int place) {
+        long entry = offsets[seats] + index * seats * 2;
+        if (place < seats - 1) {
+            return (table.getShort((int) (entry + place * 2)) & 0xFFFF) / SCALE;
+        }
+        double rest = 1;
+        for (int other = 0; other < seats - 1; other++) {
+            rest -= (table.getShort((int) (entry + other * 2)) & 0xFFFF) / SCALE;
+        }
+        return Math.max(0, rest);
+    }
+
+    // Position number with the mover first, shifted left by three with the seat count
+    // in the low bits, or -1 when the position is outside the table
+    private long find(GameState state) {
+        if (state.getFingerprint() != board.fingerprint()) {
+            return -1;
+        }
+        int players = state.getPlayerCount();
+        long index = 0, weight = 1;
+        int seats = 0;
+        for (int i = 0, seat = state.getCurrentPlayer(); i < players; i++, seat = seat + 1 == players ? 0 : seat + 1) {
+            if (state.isFinished(seat)) {
+                continue;
+            }
+            int tile = state.getPosition(seat);
+            int held = state.getPowerUps(seat);
+            if (tile <= threshold || tile >= board.size() || held > maxHeld || ++seats > maxSeats) {
+                return -1;
+            }
+            index += weight * code(tile, state.isSkipPending(seat), held);
+            weight *= radix;
+        }
+        return seats < 2 ? -1 : index << 3 | seats;
+    }
+
+    private int code(int tile, boolean skip, int held) {
+        return ((tile - threshold - 1) * 2 + (skip ? 1 : 0)) * (maxHeld + 1) + held;
+    }
+
+    // Usage: EndgameTablebase [--threshold=N] [--seats=N] [--threads=N] [board-file]
+    public static void main(String[] args) {
+        int threshold = DEFAULT_THRESHOLD;
+        int seats = MAX_SEATS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String boardFile = null;
+        Board board;
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--threshold=")) {
+                    threshold = Integer.parseInt(arg.substring("--threshold=".length()));
+                } else if (arg.startsWith("--seats=")) {
+                    seats = Integer.parseInt(arg.substring("--seats=".length()));
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } else {
+                    boardFile = arg;
+                }
+            }
+            if (seats < 2 || seats > MAX_SEATS || threads < 1) {
+                throw new IllegalArgumentException("--seats must be 2 to " + MAX_SEATS + " and --threads positive");
+            }
+            board = boardFile != null ? BoardLoader.load(Paths.get(boardFile)) : BoardLoader.loadClassic();
+            Path file = fileFor(board);
+            long started = System.nanoTime();
+            build(board, threshold, seats, threads, file);
+            System.out.printf("Wrote %s (%d bytes) in %.1f s%n", file, Files.size(file), (System.nanoTime() - started) / 1e9);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not build the tablebase: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Solves every seat count up to maxSeats and writes the file, replacing any old one atomically
+    public static void build(Board board, int threshold, int maxSeats, int threads, Path file) throws IOException {
+        if (threshold < 0 || threshold >= board.size() - 1) {
+            throw new IllegalArgumentException("The threshold must be below tile " + (board.size() - 1));
+        }
+        for (int tile : board.getPowerUpTiles()) {
+            if (tile > threshold) {
+                throw new IllegalArgumentException("Power-up tile " + tile + " lies past the threshold " + threshold);
+            }
+        }
+        int maxHeld = heldLimit(board);
+        int radix = radix(board, threshold, maxHeld);
+        if (positions(radix, maxSeats) * maxSeats > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("A " + maxSeats + "-seat table past tile " + threshold + " is too large");
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tablebase-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(board.fingerprint())
+                    .putInt(threshold).putInt(maxHeld).putInt(maxSeats).putInt(0).flip();
+            out.write(header);
+            Solver solver = new Solver(board, threshold, maxHeld, pool, threads);
+            for (int seats = 2; seats <= maxSeats; seats++) {
+                long started = System.nanoTime();
+                out.write(solver.solve(seats));
+                System.out.printf("%d seats: %d positions in %.1f s%n", seats, positions(radix, seats),
+                        (System.nanoTime() - started) / 1e9);
+            }
+            out.force(true);
+        } finally {
+            pool.shutdownNow();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Value iteration over one seat count. Positions are grouped by how far their
+    // seats have come in total; a move only adds to that total unless it overshoots,
+    // sits out a trap, or goes down a snake, so groups are solved from the most
+    // advanced down and each group is relaxed until it stops changing. A final check
+    // pass repeats everything if a snake inside the zone left an earlier group stale.
+    //
+    // A sweep over a group is Jacobi-style: every position reads the values the last
+    // sweep left and writes to a separate buffer, which is copied back once all
+    // threads are done. No value is read while it is being written, so the table is
+    // the same however the work is split between threads.
+    private static final class Solver {
+        private final Board board;
+        private final int threshold, maxHeld, radix, zone;
+        private final ExecutorService pool;
+        private final int threads;
+        private final TurnDistribution distributions;
+        private final double[][] cumulative; // [tile * 2 + skip], filled on first use
+        private final Map<Long, double[]> exits = new ConcurrentHashMap<>();
+        private int seats;
+        private double[] values;  // [position * seats + seat]
+        private double[] fresh;   // [(i - from) * seats + seat] for the group being swept
+        private short[] policies; // [position]
+
+        Solver(Board board, int threshold, int maxHeld, ExecutorService pool, int threads) {
+            this.board = board;
+            this.threshold = threshold;
+            this.maxHeld = maxHeld;
+            this.pool = pool;
+            this.threads = threads;
+            radix = radix(board, threshold, maxHeld);
+            zone = board.size() - 1 - threshold;
+            distributions = new TurnDistribution(board);
+            cumulative = new double[(board.size() + 1) * 2][];
+        }
+
+        ByteBuffer solve(int seats) {
+            this.seats = seats;
+            int count = (int) positions(radix, seats);
+            values = new double[count * seats];
+            policies = new short[count];
+            exits.clear();
+
+            // Positions bucketed by their seats' total progress into the zone
+            int groups = seats * (zone - 1) + 1;
+            int[] sizes = new int[groups + 1];
+            for (int position = 0; position < count; position++) sizes[progress(position) + 1]++;
+            for (int group = 0; group < groups; group++) sizes[group + 1] += sizes[group];
+            int[] order = new int[count];
+            int[] fill = sizes.clone();
+            for (int position = 0; position < count; position++) order[fill[progress(position)]++] = position;
+            int largestGroup = 0;
+            for (int group = 0; group < groups; group++) {
+                largestGroup = Math.max(largestGroup, sizes[group + 1] - sizes[group]);
+            }
+            fresh = new double[largestGroup * seats];
+
+            double change;
+            do {
+                change = 0;
+                for (int group = groups - 1; group >= 0; group--) {
+                    double first = relax(order, sizes[group], sizes[group + 1]);
+                    change = Math.max(change, first);
+                    for (double step = first; step > TOLERANCE; ) {
+                        step = relax(order, sizes[group], sizes[group + 1]);
+                    }
+                }
+            } while (change > TOLERANCE * 1e3);
+
+            ByteBuffer buffer = ByteBuffer.allocate(count * seats * 2);
+            for (int position = 0; position < count; position++) {
+                for (int seat = 0; seat < seats - 1; seat++) {
+                    buffer.putShort((short) Math.round(values[position * seats + seat] * SCALE));
+                }
+                buffer.putShort(policies[position]);
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        private int progress(int position) {
+            int total = 0;
+            for (int seat = 0; seat < seats; seat++, position /= radix) {
+                total += position % radix / (2 * (maxHeld + 1));
+            }
+            return total;
+        }
+
+        // One sweep over positions [from, to) of the order, split across the pool; returns the largest change
+        private double relax(int[] order, int from, int to) {
+            int chunk = Math.max(1024, (to - from + threads - 1) / threads);
+            List<Future<Double>> parts = new ArrayList<>();
+            for (int start = from; start < to; start += chunk) {
+                int first = start, last = Math.min(to, start + chunk);
+                parts.add(pool.submit(() -> {
+                    double[] scratch = new double[seats * 3];
+                    double largest = 0;
+                    for (int i = first; i < last; i++) {
+                        largest = Math.max(largest, update(order[i], (i - from) * seats, scratch));
+                    }
+                    return largest;
+                }));
+            }
+            double largest = 0;
+            try {
+                for (Future<Double> part : parts) {
+                    largest = Math.max(largest, part.get());
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Tablebase build failed", e);
+            }
+            for (int i = from; i < to; i++) {
+                System.arraycopy(fresh, (i - from) * seats, values, order[i] * seats, seats);
+            }
+            return largest;
+        }
+
+        // Recomputes one position from the last sweep's values into fresh at the given offset.
+        // scratch holds three vectors of win chances: the move tried, the best so far, the total
+        private double update(int position, int offset, double[] scratch) {
+            int mover = position % radix;
+            int held = mover % (maxHeld + 1);
+            boolean skip = mover / (maxHeld + 1) % 2 == 1;
+            int tile = mover / (2 * (maxHeld + 1)) + threshold + 1;
+            int candidate = 0, best = seats, total = 2 * seats;
+            int policy = 0;
+
+            if (skip) {
+                outcome(position, code(tile, false, held), scratch);
+                System.arraycopy(scratch, 0, scratch, total, seats);
+            } else {
+                Arrays.fill(scratch, total, total + seats, 0);
+                for (int roll = 1; roll <= 6; roll++) {
+                    int bestBonus = 0;
+                    move(position, tile, held, roll, 0, scratch);
+                    System.arraycopy(scratch, candidate, scratch, best, seats);
+                    for (int bonus = 1; bonus <= 3 && held > 0; bonus++) {
+                        move(position, tile, held, roll, bonus, scratch);
+                        if (scratch[candidate] > scratch[best] + TOLERANCE) {
+                            System.arraycopy(scratch, candidate, scratch, best, seats);
+                            bestBonus = bonus;
+                        }
+                    }
+                    for (int seat = 0; seat < seats; seat++) scratch[total + seat] += scratch[best + seat] / 6;
+                    policy |= bestBonus << 2 * (roll - 1);
+                }
+            }
+
+            double change = 0;
+            int base = position * seats;
+            for (int seat = 0; seat < seats; seat++) {
+                change = Math.max(change, Math.abs(scratch[total + seat] - values[base + seat]));
+                fresh[offset + seat] = scratch[total + seat];
+            }
+            policies[position] = (short) policy;
+            return change;
+        }
+
+        private int code(int tile, boolean skip, int held) {
+            return ((tile - threshold - 1) * 2 + (skip ? 1 : 0)) * (maxHeld + 1) + held;
+        }
+
+        // Win chances, from this position's point of view, after the mover plays roll + bonus
+        private void move(int position, int tile, int held, int roll, int bonus, double[] result) {
+            int left = bonus > 0 ? held - 1 : held;
+            if (tile + roll + bonus > board.size()) {
+                outcome(position, code(tile, false, left), result); // overshoot: stays put
+                return;
+            }
+            int next = board.destination(tile, roll + bonus);
+            if (next >= board.size()) {
+                Arrays.fill(result, 0, seats, 0);
+                result[0] = 1;
+            } else if (next <= threshold) {
+                exit(position, next, board.isTrap(next), result);
+            } else {
+                outcome(position, code(next, board.isTrap(next), left), result);
+            }
+        }
+
+        // The mover ends its turn with the given code; the next position has the
+        // other seats first and the mover last
+        private void outcome(int position, int moverCode, double[] result) {
+            int next = position / radix + moverCode * (int) positions(radix, seats - 1);
+            int base = next * seats;
+            result[0] = values[base + seats - 1];
+            for (int seat = 1; seat < seats; seat++) {
+                result[seat] = values[base + seat - 1];
+            }
+        }
+
+        // The mover fell out of the zone: an independent race without power-ups
+        private void exit(int position, int tile, boolean skip, double[] result) {
+            long key = tile * 2L + (skip ? 1 : 0);
+            int others = position / radix;
+            for (int seat = 1; seat < seats; seat++, others /= radix) {
+                key = key * (2L * zone) + others % radix / (maxHeld + 1);
+            }
+            double[] wins = exits.computeIfAbsent(key, k -> {
+                double[][] racing = new double[seats][];
+                int rest = position / radix;
+                for (int seat = 1; seat < seats; seat++, rest /= radix) {
+                    int code = rest % radix;
+                    racing[seat - 1] = distribution(code / (2 * (maxHeld + 1)) + threshold + 1, code / (maxHeld + 1) % 2 == 1);
+                }
+                racing[seats - 1] = distribution(tile, skip);
+                return TurnDistribution.race(racing);
+            });
+            result[0] = wins[seats - 1];
+            for (int seat = 1; seat < seats; seat++) {
+                result[seat] = wins[seat - 1];
+            }
+        }
+
+        private double[] distribution(int tile, boolean skip) {
+            int slot = tile * 2 + (skip ? 1 : 0);
+            synchronized (cumulative) {
+                if (cumulative[slot] == null) {
+                    cumulative[slot] = distributions.cumulative(tile, skip);
+                }
+                return cumulative[slot];
+            }
+        }
+    }
+}
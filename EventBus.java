@@ -0,0 +1,134 @@
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+// Delivers GameEvents from the engine to any number of subscribers. Each
+// subscriber has its own bounded queue and thread, so a slow consumer only
+// ever delays itself. When a queue is full the subscriber's overflow policy
+// decides: DROP_OLDEST throws away the oldest queued event and never holds up
+// the publisher (for views and logs), BLOCK makes the publisher wait for room
+// (for consumers that must see every event, like the replay recorder).
+public class EventBus {
+    public enum Overflow { DROP_OLDEST, BLOCK }
+
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    public final class Subscription {
+        private final String name;
+        private final BlockingQueue<GameEvent> queue;
+        private final Overflow overflow;
+        private final Consumer<GameEvent> handler;
+        private final Thread thread;
+        private int unhandled; // queued or being handled; guarded by this
+        private long dropped;  // guarded by this
+        private volatile boolean cancelled;
+
+        private Subscription(String name, int capacity, Overflow overflow, Consumer<GameEvent> handler) {
+            this.name = name;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.overflow = overflow;
+            this.handler = handler;
+            thread = new Thread(this::run, "events-" + name);
+            thread.setDaemon(true);
+        }
+
+        private void offer(GameEvent event) {
+            synchronized (this) {
+                unhandled++;
+            }
+            if (overflow == Overflow.BLOCK) {
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    handled();
+                }
+                return;
+            }
+            while (!queue.offer(event)) {
+                if (queue.poll() != null) {
+                    synchronized (this) {
+                        dropped++;
+                    }
+                    handled();
+                }
+            }
+        }
+
+        private void run() {
+            while (!cancelled) {
+                GameEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    System.err.println("Event subscriber " + name + " failed on " + event + ": " + e);
+                }
+                handled();
+            }
+        }
+
+        private synchronized void handled() {
+            if (--unhandled == 0) {
+                notifyAll();
+            }
+        }
+
+        // Waits until every event published so far has been handled or dropped
+        public synchronized void drain() {
+            while (unhandled > 0 && !cancelled) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        public synchronized long getDropped() {
+            return dropped;
+        }
+
+        public void cancel() {
+            unsubscribe(this);
+            cancelled = true;
+            thread.interrupt();
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    public Subscription subscribe(String name, int capacity, Overflow overflow, Consumer<GameEvent> handler) {
+        Subscription subscription = new Subscription(name, capacity, overflow, handler);
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = subscription;
+            subscriptions = next;
+        }
+        subscription.thread.start();
+        return subscription;
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        subscriptions = Arrays.stream(subscriptions).filter(s -> s != subscription).toArray(Subscription[]::new);
+    }
+
+    // Lets the publisher skip building events nobody would receive
+    public boolean hasSubscribers() {
+        return subscriptions.length > 0;
+    }
+
+    public void publish(GameEvent event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+}
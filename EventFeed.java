@@ -0,0 +1,50 @@
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Font;
+
+// Side panel listing what happened in the game, newest at the bottom. Posting
+// never blocks the turn flow, and only the most recent entries are kept so a
+// long-running game cannot grow it without limit.
+public class EventFeed extends JPanel {
+    private final DefaultListModel<String> entries = new DefaultListModel<>();
+    private final JList<String> list = new JList<>(entries);
+    private final int capacity;
+
+    public EventFeed(int capacity) {
+        super(new BorderLayout());
+        this.capacity = capacity;
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFont(new Font("Arial", Font.PLAIN, 12));
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setBorder(BorderFactory.createTitledBorder("Game Events"));
+        add(scroll, BorderLayout.CENTER);
+        setPreferredSize(new Dimension(240, 0));
+    }
+
+    // Adds a message; a message of several lines becomes one entry per line, the later ones indented
+    public void post(String message) {
+        boolean first = true;
+        for (String line : message.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            entries.addElement(first ? line : "    " + line.trim());
+            first = false;
+        }
+        int excess = entries.size() - capacity;
+        if (excess > 0) {
+            entries.removeRange(0, excess - 1);
+        }
+        list.ensureIndexIsVisible(entries.size() - 1);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Running totals of what happened in a round, fed from the event bus.
+// Read it only after draining its subscription.
+public class EventStats implements Consumer<GameEvent> {
+    private final long[] counts = new long[GameEvent.Type.values().length];
+    private long tilesMoved;
+
+    @Override
+    public void accept(GameEvent event) {
+        counts[event.type.ordinal()]++;
+        if (event.type == GameEvent.Type.MOVED) {
+            tilesMoved += event.to - event.from;
+        }
+    }
+
+    public long getCount(GameEvent.Type type) {
+        return counts[type.ordinal()];
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        tilesMoved = 0;
+    }
+
+    public String describe() {
+        return "📊 " + getCount(GameEvent.Type.ROLLED) + " rolls, " + tilesMoved + " tiles walked, "
+                + getCount(GameEvent.Type.BITTEN) + " snake bites, " + getCount(GameEvent.Type.CLIMBED) + " ladders, "
+                + getCount(GameEvent.Type.TELEPORTED) + " teleports, " + getCount(GameEvent.Type.TRAPPED) + " traps, "
+                + getCount(GameEvent.Type.POWER_UP_USED) + " power-ups used";
+    }
+}
@@ -0,0 +1,327 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// A PowerUpAI that looks several turns ahead before spending a power-up. The
+// search alternates chance nodes (the six rolls of whoever moves next) with
+// decision nodes (that seat's choice of bonus) and scores each line by every
+// unfinished seat's chance of finishing first. Every seat is assumed to pick
+// the bonus best for its own chance, as in EndgameTablebase, and the first
+// seat to finish ends the line.
+//
+// Positions at the search horizon are scored as a race between the seats, each
+// finishing by its exact distribution of turns when playing PowerUpPolicy from
+// where it stands (PowerUpPolicy.cumulative), so a power-up kept is worth at the
+// horizon what the policy would make of it.
+//
+// The search deepens one turn at a time until the time budget runs out, with
+// the six rolls of the upper chance nodes split across a fork-join pool. A
+// depth that runs out of time or fails is thrown away; the answer is the last
+// depth completed, or PowerUpAI's own decision if not even the first one
+// finished, so the AI never holds up a turn. decide() stops waiting at the deadline, and the
+// search checks the time at every roll and bonus it tries and before every
+// distribution it has not computed yet, so it stops soon after. Positions the
+// endgame tablebase covers, boards too big for a PowerUpPolicy, and seats
+// without power-ups skip the search.
+public class ExpectimaxAI extends PowerUpAI {
+    public static final int MAX_DEPTH = 16; // turns, counting the one being decided
+    private static final int FORK_DEPTH = 3;  // chance nodes with at least this many turns below fork their rolls
+    private static final int DEEPENING_FACTOR = 8; // no deeper search once the last took over this share of the time left
+    private static final double TOLERANCE = 1e-9;
+    private static final int MAX_HELD = PowerUpPolicy.MAX_POWER_UP_TILES; // a policy never tells more power-ups apart
+
+    private final long budgetNanos;
+    private final ForkJoinPool pool;
+    private final int size;
+    private final int[] powerUpBits; // tile -> its bit in a remaining mask, 0 if not a power-up tile
+    // Turns-to-finish distributions by (remaining, held, tile, skip), filled on first use
+    private final Map<Long, double[]> distributions = new ConcurrentHashMap<>();
+
+    public ExpectimaxAI(Board board, boolean verbose, long budgetMillis) {
+        this(board, verbose, budgetMillis, ForkJoinPool.commonPool());
+    }
+
+    public ExpectimaxAI(Board board, boolean verbose, long budgetMillis, ForkJoinPool pool) {
+        super(board, verbose);
+        budgetNanos = budgetMillis * 1_000_000;
+        this.pool = pool;
+        size = board.size();
+        powerUpBits = new int[size + 1];
+        int[] powerUpTiles = board.getPowerUpTiles();
+        for (int i = 0; i < powerUpTiles.length && i < PowerUpPolicy.MAX_POWER_UP_TILES; i++) {
+            powerUpBits[powerUpTiles[i]] = 1 << i;
+        }
+    }
+
+    @Override
+    public Decision decide(GameState state, int diceRoll) {
+        Decision fallback = super.decide(state, diceRoll);
+        int seat = state.getCurrentPlayer();
+        EndgameTablebase tablebase = getTablebase();
+        if (budgetNanos <= 0 || getPolicy() == null || state.getPowerUps(seat) == 0
+                || tablebase != null && tablebase.covers(state)) {
+            return fallback;
+        }
+        Position root = Position.of(state, getPolicy().remainingMask(state));
+        if (root.tiles.length < 2) {
+            return fallback;
+        }
+
+        Search search = new Search(System.nanoTime() + budgetNanos);
+        Decision best = fallback;
+        int reached = 0;
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            long started = System.nanoTime();
+            int current = depth;
+            Future<double[][]> running = pool.submit(() -> search.root(root, diceRoll, current));
+            double[][] options;
+            try {
+                options = running.get(Math.max(0, search.deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Whatever is still scoring a horizon stops at its next check; the answer does not wait
+                search.stopped = true;
+                break;
+            } catch (InterruptedException e) {
+                // AiWorker gave up on this decision; stop the pool's share of it too
+                search.stopped = true;
+                Thread.currentThread().interrupt();
+                break;
+            } catch (CancellationException | ExecutionException e) {
+                if (!(e instanceof CancellationException || e.getCause() instanceof CancellationException)) {
+                    // A broken search must not cost the turn; the last depth completed still stands
+                    System.err.println("AI search failed at depth " + depth + ": " + e.getCause());
+                }
+                break; // out of time part way through this depth, or failed
+            }
+            best = choose(seat, diceRoll, options);
+            reached = depth;
+            long took = System.nanoTime() - started;
+            if (search.deadline - System.nanoTime() < took * DEEPENING_FACTOR) {
+                break;
+            }
+        }
+        if (isVerbose()) {
+            System.out.println("AI search " + reached + " turns deep with roll " + diceRoll + ": +" + best.bonus
+                    + " (win chance " + best.chosenValue + ", " + best.regularValue + " without)");
+        }
+        return best;
+    }
+
+    // The bonus whose line gives the mover the best chance, keeping power-ups on a tie
+    private static Decision choose(int seat, int diceRoll, double[][] options) {
+        int bonus = 0;
+        for (int option = 1; option < options.length; option++) {
+            if (options[option][0] > options[bonus][0] + TOLERANCE) {
+                bonus = option;
+            }
+        }
+        return new Decision(seat, diceRoll, bonus, options[0][0], options[bonus][0], false);
+    }
+
+    // The unfinished seats in turn order from the root mover, as the search sees them
+    private static final class Position {
+        final int[] tiles;
+        final int[] held;
+        final boolean[] skip;
+        final int remaining; // bit i set while the i-th power-up tile is on the board
+        final int mover;
+        final int winner;    // the first seat to finish, -1 while nobody has
+
+        Position(int[] tiles, int[] held, boolean[] skip, int remaining, int mover, int winner) {
+            this.tiles = tiles;
+            this.held = held;
+            this.skip = skip;
+            this.remaining = remaining;
+            this.mover = mover;
+            this.winner = winner;
+        }
+
+        static Position of(GameState state, int remaining) {
+            int players = state.getPlayerCount();
+            List<Integer> seats = new ArrayList<>();
+            for (int i = 0, seat = state.getCurrentPlayer(); i < players; i++, seat = (seat + 1) % players) {
+                if (!state.isFinished(seat)) seats.add(seat);
+            }
+            int count = seats.size();
+            int[] tiles = new int[count], held = new int[count];
+            boolean[] skip = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                tiles[i] = state.getPosition(seats.get(i));
+                held[i] = state.getPowerUps(seats.get(i));
+                skip[i] = state.isSkipPending(seats.get(i));
+            }
+            return new Position(tiles, held, skip, remaining, 0, -1);
+        }
+
+        // The turn passes to the next seat with nothing else changed, as when a trapped turn is sat out
+        Position pass() {
+            boolean[] nextSkip = skip.clone();
+            nextSkip[mover] = false;
+            return new Position(tiles, held, nextSkip, remaining, (mover + 1) % tiles.length, -1);
+        }
+    }
+
+    // One decision's search: the shared deadline, and a flag to stop it early
+    private final class Search {
+        final long deadline;
+        volatile boolean stopped;
+
+        Search(long deadline) {
+            this.deadline = deadline;
+        }
+
+        // Win chances, from the root mover's point of view first, for each bonus it may add
+        double[][] root(Position position, int roll, int depth) {
+            int mover = position.mover;
+            int options = position.held[mover] > 0 ? 4 : 1; // one power-up buys any bonus up to 3
+            double[][] values = new double[options][];
+            for (int bonus = 0; bonus < options; bonus++) {
+                check();
+                values[bonus] = after(play(position, roll, bonus), depth - 1);
+            }
+            return values;
+        }
+
+        // The value of a position reached by a move, with this many turns left to search
+        private double[] after(Position position, int depth) {
+            if (position.winner >= 0) {
+                double[] won = new double[position.tiles.length];
+                won[position.winner] = 1;
+                return won;
+            }
+            return depth == 0 ? evaluate(position, this) : chance(position, depth);
+        }
+
+        // Abandons the search once it is out of time or no longer wanted
+        void check() {
+            if (stopped || System.nanoTime() > deadline) {
+                throw new CancellationException();
+            }
+        }
+
+        // The average over the next mover's rolls, each played as that seat likes best
+        private double[] chance(Position position, int depth) {
+            check();
+            if (position.skip[position.mover]) {
+                return after(position.pass(), depth - 1);
+            }
+            double[] total = new double[position.tiles.length];
+            if (depth >= FORK_DEPTH) {
+                List<RollTask> rolls = new ArrayList<>();
+                for (int roll = 1; roll <= 6; roll++) {
+                    rolls.add(new RollTask(position, roll, depth));
+                }
+                for (RollTask task : RecursiveTask.invokeAll(rolls)) {
+                    add(total, task.join());
+                }
+            } else {
+                for (int roll = 1; roll <= 6; roll++) {
+                    check();
+                    add(total, best(position, roll, depth));
+                }
+            }
+            for (int seat = 0; seat < total.length; seat++) total[seat] /= 6;
+            return total;
+        }
+
+        // The mover's best line for this roll, keeping power-ups when nothing is gained
+        private double[] best(Position position, int roll, int depth) {
+            int mover = position.mover;
+            double[] best = after(play(position, roll, 0), depth - 1);
+            for (int bonus = 1; bonus <= 3 && position.held[mover] > 0; bonus++) {
+                check();
+                double[] value = after(play(position, roll, bonus), depth - 1);
+                if (value[mover] > best[mover] + TOLERANCE) {
+                    best = value;
+                }
+            }
+            return best;
+        }
+
+        private final class RollTask extends RecursiveTask<double[]> {
+            private final Position position;
+            private final int roll, depth;
+
+            RollTask(Position position, int roll, int depth) {
+                this.position = position;
+                this.roll = roll;
+                this.depth = depth;
+            }
+
+            @Override
+            protected double[] compute() {
+                return best(position, roll, depth);
+            }
+        }
+    }
+
+    private static void add(double[] total, double[] value) {
+        for (int seat = 0; seat < total.length; seat++) total[seat] += value[seat];
+    }
+
+    // The mover plays roll + bonus exactly as GameEngine would, then the turn passes
+    private Position play(Position position, int roll, int bonus) {
+        int mover = position.mover;
+        int[] tiles = position.tiles.clone();
+        int[] held = position.held.clone();
+        boolean[] skip = position.skip.clone();
+        int remaining = position.remaining;
+        if (bonus > 0) held[mover]--;
+        int tile = tiles[mover];
+        if (tile + roll + bonus <= size) {
+            int next = getBoard().destination(tile, roll + bonus);
+            if (getBoard().isTrap(next)) {
+                skip[mover] = true;
+            } else if (powerUpBits[next] != 0) {
+                int bit = powerUpBits[next];
+                if ((remaining & bit) != 0) {
+                    held[mover]++;
+                    remaining &= ~bit;
+                }
+            }
+            tiles[mover] = next;
+            if (next >= size) {
+                return new Position(tiles, held, skip, remaining, mover, mover);
+            }
+        }
+        return new Position(tiles, held, skip, remaining, (mover + 1) % tiles.length, -1);
+    }
+
+    // Every seat's chance of finishing first at the horizon: an independent race of
+    // the seats' turns-to-finish distributions under PowerUpPolicy, in turn order from the mover
+    private double[] evaluate(Position position, Search search) {
+        int seats = position.tiles.length;
+        double[][] curves = new double[seats][];
+        for (int order = 0; order < seats; order++) {
+            int seat = (position.mover + order) % seats;
+            curves[order] = distribution(position.tiles[seat], position.skip[seat], position.held[seat],
+                    position.remaining, search);
+        }
+        double[] inOrder = TurnDistribution.race(curves);
+        double[] wins = new double[seats];
+        for (int order = 0; order < seats; order++) {
+            wins[(position.mover + order) % seats] = inOrder[order];
+        }
+        return wins;
+    }
+
+    // Computing a distribution is the slowest step of the search, so time is checked before each new one
+    private double[] distribution(int tile, boolean skip, int held, int remaining, Search search) {
+        long key = (((long) remaining * (MAX_HELD + 1) + Math.min(held, MAX_HELD)) * (size + 1) + tile) * 2 + (skip ? 1 : 0);
+        double[] curve = distributions.get(key);
+        if (curve == null) {
+            search.check();
+            curve = getPolicy().cumulative(tile, skip, held, remaining);
+            distributions.putIfAbsent(key, curve);
+        }
+        return curve;
+    }
+}
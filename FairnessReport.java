@@ -0,0 +1,100 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// Exact finishing-place chances for every seat of a board, to see how much
+// moving first is worth before the board ships. No dice are rolled.
+//
+// Without power-ups no seat ever affects another: each one walks its own
+// Markov chain from tile 1, and only the fixed turn order decides ties. So a
+// seat's number of turns to finish is independent of everyone else's, and
+// the joint game over all seats never has to be built. Each seat's exact
+// TurnDistribution goes into TurnDistribution.ranks, which is exact up to the
+// distribution's TAIL and takes milliseconds even for dozens of seats.
+//
+// Power-ups are left out, since the shared pool of power-up tiles is the one
+// thing that ties seats together; Simulator measures their effect by play.
+public class FairnessReport {
+    private static final int SUMMARY_SEATS = 6; // the closing table covers 2 to this many seats
+
+    // Usage: FairnessReport [--seats=N] [board-file]
+    public static void main(String[] args) {
+        int seats = 3;
+        String boardFile = null;
+        Board board;
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--seats=")) {
+                    seats = Integer.parseInt(arg.substring("--seats=".length()));
+                } else {
+                    boardFile = arg;
+                }
+            }
+            if (seats < GameEngine.MIN_PLAYERS || seats > GameEngine.MAX_PLAYERS) {
+                throw new IllegalArgumentException("--seats must be " + GameEngine.MIN_PLAYERS + " to " + GameEngine.MAX_PLAYERS);
+            }
+            board = boardFile != null ? BoardLoader.load(Paths.get(boardFile)) : BoardLoader.loadClassic();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not build the report: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        long started = System.nanoTime();
+        double[] start = new TurnDistribution(board).cumulative(1, false);
+        double[][] ranks = ranks(start, seats);
+        double millis = (System.nanoTime() - started) / 1e6;
+
+        System.out.printf("%s, %d seats, power-ups not counted (%.1f ms)%n", board.getName(), seats, millis);
+        System.out.printf("Turns to finish for every seat: mean %.2f, median %d, 90%% within %d%n",
+                TurnDistribution.mean(start), TurnDistribution.quantile(start, 0.5), TurnDistribution.quantile(start, 0.9));
+        System.out.println();
+        report(ranks);
+
+        System.out.println();
+        System.out.println("Edge of the first seat over a fair share of wins:");
+        for (int count = GameEngine.MIN_PLAYERS; count <= SUMMARY_SEATS; count++) {
+            double win = ranks(start, count)[0][0];
+            System.out.printf("  %d seats: wins %7.3f%% against %7.3f%% fair, %+.3f points%n",
+                    count, 100 * win, 100.0 / count, 100 * (win - 1.0 / count));
+        }
+    }
+
+    // [seat][rank - 1] for seats that all start on the same tile, in turn order
+    public static double[][] ranks(double[] start, int seats) {
+        double[][] cumulative = new double[seats][];
+        Arrays.fill(cumulative, start);
+        return TurnDistribution.ranks(cumulative);
+    }
+
+    private static void report(double[][] ranks) {
+        int seats = ranks.length;
+        // Places past the first few are left out of the table but still count in the average
+        int shown = Math.min(seats, 6);
+        StringBuilder header = new StringBuilder("Seat  ");
+        for (int rank = 1; rank <= shown; rank++) {
+            header.append(String.format("%9s", place(rank)));
+        }
+        System.out.println(header.append("  Average rank  Edge"));
+        for (int seat = 0; seat < seats; seat++) {
+            StringBuilder row = new StringBuilder(String.format("%-6d", seat + 1));
+            double average = 0;
+            for (int rank = 1; rank <= seats; rank++) {
+                average += rank * ranks[seat][rank - 1];
+                if (rank <= shown) {
+                    row.append(String.format("%8.3f%%", 100 * ranks[seat][rank - 1]));
+                }
+            }
+            row.append(String.format("  %12.4f  %+.3f", average, 100 * (ranks[seat][0] - 1.0 / seats)));
+            System.out.println(row);
+        }
+    }
+
+    private static String place(int rank) {
+        if (rank == 1) return "Win";
+        if (rank % 10 == 1 && rank % 100 != 11) return rank + "st";
+        if (rank % 10 == 2 && rank % 100 != 12) return rank + "nd";
+        if (rank % 10 == 3 && rank % 100 != 13) return rank + "rd";
+        return rank + "th";
+    }
+}
@@ -0,0 +1,409 @@
+import java.util.Random;
+
+// Pure game rules with no Swing dependency. The JFrame drives this engine and
+// only renders what it reports, so whole games can also run without a display.
+public class GameEngine {
+    public static final int MIN_PLAYERS = 2;
+    public static final int MAX_PLAYERS = 64;
+
+    private final Board board;
+    private final boolean[] powerUpAvailable;
+    private final int[] powerUpTiles;
+    private final Dice dice;
+    private EventBus events; // null, or a bus that may have no subscribers
+
+    // Per-seat state, indexed by seat in turn order
+    private final int playerCount;
+    private final boolean[] ai;
+    private final int[] positions;
+    private final int[] powerUps;
+    private final boolean[] skipTurn;
+    private final boolean[] finished;
+    private final int[] ranks;
+    private final int[] seatByRank;
+    // Unfinished seats form a circular list, so passing the turn and
+    // dropping a finished seat are both constant time whatever the table size
+    private final int[] nextSeat;
+    private final int[] previousSeat;
+    private int unfinishedCount;
+    private int currentPlayer;
+    private int currentRank;
+
+    // Everything that happened during a single move, so a view can report it
+    public static final class MoveResult {
+        public int seat;
+        public int from;
+        public int diceRoll;
+        public boolean overshoot;
+        public int teleportFrom, teleportTo;
+        public int snakeFrom, snakeTo;
+        public int ladderFrom, ladderTo;
+        public boolean trapped;
+        public boolean powerUpCollected;
+        public int to;
+        public int rank;
+
+        void clear() {
+            seat = from = diceRoll = to = rank = 0;
+            overshoot = trapped = powerUpCollected = false;
+            teleportFrom = teleportTo = snakeFrom = snakeTo = ladderFrom = ladderTo = 0;
+        }
+
+        public boolean teleported() {
+            return teleportFrom != 0;
+        }
+
+        public boolean bitten() {
+            return snakeFrom != 0;
+        }
+
+        public boolean climbed() {
+            return ladderFrom != 0;
+        }
+    }
+
+    // One entry per seat in turn order, true where the seat is played by the AI
+    public GameEngine(Board board, boolean[] aiSeats) {
+        this(board, aiSeats, new Random().nextLong());
+    }
+
+    // Continues a saved game on the board it was played on
+    public GameEngine(Board board, GameState state) {
+        this(board, state.getAISeats(), state.getDiceState());
+        restoreState(state);
+    }
+
+    // The same seed, seats and choices always replay the same game
+    public GameEngine(Board board, boolean[] aiSeats, long seed) {
+        if (aiSeats.length < MIN_PLAYERS || aiSeats.length > MAX_PLAYERS) {
+            throw new IllegalArgumentException("A game needs " + MIN_PLAYERS + " to " + MAX_PLAYERS + " players");
+        }
+        this.board = board;
+        dice = new Dice(seed);
+        powerUpAvailable = new boolean[board.size() + 1];
+        powerUpTiles = board.getPowerUpTiles();
+        playerCount = aiSeats.length;
+        ai = aiSeats.clone();
+        positions = new int[playerCount];
+        powerUps = new int[playerCount];
+        skipTurn = new boolean[playerCount];
+        finished = new boolean[playerCount];
+        ranks = new int[playerCount];
+        seatByRank = new int[playerCount + 1];
+        nextSeat = new int[playerCount];
+        previousSeat = new int[playerCount];
+        reset();
+    }
+
+    public void reset() {
+        for (int seat = 0; seat < playerCount; seat++) {
+            positions[seat] = 1;
+            powerUps[seat] = 0;
+            skipTurn[seat] = false;
+            finished[seat] = false;
+            ranks[seat] = 0;
+            seatByRank[seat + 1] = -1;
+            nextSeat[seat] = (seat + 1) % playerCount;
+            previousSeat[seat] = (seat + playerCount - 1) % playerCount;
+        }
+        unfinishedCount = playerCount;
+
+        // Power-up tiles become available again for the next round
+        for (int tile : powerUpTiles) {
+            powerUpAvailable[tile] = true;
+        }
+
+        currentPlayer = 0;
+        currentRank = 1;
+    }
+
+    // Starts the dice over from a new seed, e.g. before reusing the engine for another game
+    public void reseed(long seed) {
+        dice.setState(seed);
+    }
+
+    // Events are only built while someone is subscribed to the bus
+    public void setEventBus(EventBus events) {
+        this.events = events;
+    }
+
+    private boolean publishing() {
+        return events != null && events.hasSubscribers();
+    }
+
+    private void publish(GameEvent.Type type, int seat, int from, int to, int value) {
+        events.publish(new GameEvent(type, seat, from, to, value, powerUps[seat]));
+    }
+
+    public int rollDice() {
+        int roll = dice.roll();
+        if (publishing()) {
+            publish(GameEvent.Type.ROLLED, currentPlayer, positions[currentPlayer], positions[currentPlayer], roll);
+        }
+        return roll;
+    }
+
+    public long getDiceState() {
+        return dice.getState();
+    }
+
+    // Clears a pending trap penalty for the current player; the caller then ends the turn
+    public boolean consumeSkip() {
+        if (!skipTurn[currentPlayer]) {
+            return false;
+        }
+        skipTurn[currentPlayer] = false;
+        if (publishing()) {
+            publish(GameEvent.Type.SKIPPED, currentPlayer, positions[currentPlayer], positions[currentPlayer], 0);
+        }
+        return true;
+    }
+
+    public MoveResult move(int diceRoll) {
+        return move(diceRoll, new MoveResult());
+    }
+
+    // Same as move(int), but fills in the given result instead of allocating one,
+    // for callers that play many games and read each result before the next move
+    public MoveResult move(int diceRoll, MoveResult result) {
+        int seat = currentPlayer;
+        int position = positions[seat];
+        result.clear();
+        result.seat = seat;
+        result.from = position;
+        result.diceRoll = diceRoll;
+
+        // Prevent movement beyond the last tile
+        if (position + diceRoll > board.size()) {
+            result.overshoot = true;
+            result.to = position;
+            if (publishing()) {
+                publish(GameEvent.Type.MOVED, seat, position, position, diceRoll);
+            }
+            return result;
+        }
+
+        int newPosition = board.destination(position, diceRoll);
+        int landing = position + diceRoll;
+        if (landing != newPosition) {
+            describeJumps(result, landing);
+        }
+
+        byte type = board.getType(newPosition);
+        if (type == Board.TRAP) {
+            skipTurn[seat] = true;
+            result.trapped = true;
+        } else if (type == Board.POWER_UP && powerUpAvailable[newPosition]) {
+            // Each power-up tile can only be collected once per round
+            powerUps[seat]++;
+            powerUpAvailable[newPosition] = false;
+            result.powerUpCollected = true;
+        }
+
+        positions[seat] = newPosition;
+        result.to = newPosition;
+
+        if (newPosition >= board.size() && !finished[seat]) {
+            finish(seat);
+            result.rank = ranks[seat];
+        }
+        if (publishing()) {
+            publishMove(result);
+        }
+        return result;
+    }
+
+    // Reports a move in the order it happened: landing, jumps, then tile effects
+    private void publishMove(MoveResult result) {
+        int seat = result.seat;
+        publish(GameEvent.Type.MOVED, seat, result.from, result.from + result.diceRoll, result.diceRoll);
+        if (result.teleported()) {
+            publish(GameEvent.Type.TELEPORTED, seat, result.teleportFrom, result.teleportTo, 0);
+        }
+        if (result.bitten()) {
+            publish(GameEvent.Type.BITTEN, seat, result.snakeFrom, result.snakeTo, 0);
+        }
+        if (result.climbed()) {
+            publish(GameEvent.Type.CLIMBED, seat, result.ladderFrom, result.ladderTo, 0);
+        }
+        if (result.trapped) {
+            publish(GameEvent.Type.TRAPPED, seat, result.to, result.to, 0);
+        }
+        if (result.powerUpCollected) {
+            publish(GameEvent.Type.POWER_UP_COLLECTED, seat, result.to, result.to, 0);
+        }
+        if (result.rank > 0) {
+            publish(GameEvent.Type.FINISHED, seat, result.to, result.to, result.rank);
+        }
+    }
+
+    // Fills in the teleport and snake/ladder hops the board table already folded together
+    private void describeJumps(MoveResult result, int tile) {
+        while (true) {
+            byte type = board.getType(tile);
+            int target = board.getTarget(tile);
+            if (type == Board.TELEPORT) {
+                result.teleportFrom = tile;
+                result.teleportTo = target;
+            } else if (type == Board.SNAKE) {
+                result.snakeFrom = tile;
+                result.snakeTo = target;
+            } else if (type == Board.LADDER) {
+                result.ladderFrom = tile;
+                result.ladderTo = target;
+            } else {
+                return;
+            }
+            tile = target;
+        }
+    }
+
+    // Unlinks a seat from the ring; its own nextSeat entry is kept so the
+    // turn can still be passed on from it
+    private void finish(int seat) {
+        finished[seat] = true;
+        ranks[seat] = currentRank;
+        seatByRank[currentRank++] = seat;
+        nextSeat[previousSeat[seat]] = nextSeat[seat];
+        previousSeat[nextSeat[seat]] = previousSeat[seat];
+        unfinishedCount--;
+    }
+
+    // Everything needed to continue the game from this point, including the dice
+    public GameState captureState() {
+        boolean[] collected = new boolean[powerUpTiles.length];
+        for (int i = 0; i < powerUpTiles.length; i++) {
+            collected[i] = !powerUpAvailable[powerUpTiles[i]];
+        }
+        return GameState.of(board.fingerprint(), ai, dice.getState(), currentPlayer,
+                positions, powerUps, skipTurn, finished, ranks, collected);
+    }
+
+    // Puts the game back to a captured state; it must come from this board and seating.
+    // GameState.fromBytes has already checked what it can without the board.
+    public void restoreState(GameState state) {
+        if (state.getFingerprint() != board.fingerprint()) {
+            throw new IllegalArgumentException("The saved game was played on a different board");
+        }
+        if (state.getPlayerCount() != playerCount) {
+            throw new IllegalArgumentException("The saved game has " + state.getPlayerCount() + " players, not " + playerCount);
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            if (state.isAI(seat) != ai[seat]) {
+                throw new IllegalArgumentException("The saved game seats humans and AI differently");
+            }
+            if (state.getPosition(seat) < 1 || state.getPosition(seat) > board.size()) {
+                throw new IllegalArgumentException("The saved game puts seat " + (seat + 1) + " off the board");
+            }
+        }
+        if (state.size() != GameState.recordSize(playerCount, powerUpTiles.length)) {
+            throw new IllegalArgumentException("The saved game does not track this board's power-up tiles");
+        }
+        dice.setState(state.getDiceState());
+        currentPlayer = state.getCurrentPlayer();
+        for (int seat = 0; seat < playerCount; seat++) {
+            positions[seat] = state.getPosition(seat);
+            powerUps[seat] = state.getPowerUps(seat);
+            skipTurn[seat] = state.isSkipPending(seat);
+            finished[seat] = state.isFinished(seat);
+            ranks[seat] = state.getRank(seat);
+        }
+        for (int i = 0; i < powerUpTiles.length; i++) {
+            powerUpAvailable[powerUpTiles[i]] = !state.isCollected(i);
+        }
+        relink();
+    }
+
+    // Rebuilds the ranking table and the ring of unfinished seats from the per-seat flags.
+    // The ring is always in seat order, so a finished seat simply points at the next
+    // unfinished seat after it, exactly as it did when it finished.
+    private void relink() {
+        unfinishedCount = 0;
+        for (int seat = 0; seat < playerCount; seat++) {
+            seatByRank[seat + 1] = -1;
+            if (!finished[seat]) unfinishedCount++;
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            if (finished[seat]) seatByRank[ranks[seat]] = seat;
+        }
+        currentRank = playerCount - unfinishedCount + 1;
+        if (unfinishedCount == 0) {
+            return;
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            int next = (seat + 1) % playerCount;
+            while (finished[next]) next = (next + 1) % playerCount;
+            nextSeat[seat] = next;
+            int previous = (seat + playerCount - 1) % playerCount;
+            while (finished[previous]) previous = (previous + playerCount - 1) % playerCount;
+            previousSeat[seat] = previous;
+        }
+    }
+
+    // Passes the turn to the next player who has not finished yet
+    public void endTurn() {
+        if (isGameOver()) {
+            return;
+        }
+        currentPlayer = nextSeat[currentPlayer];
+    }
+
+    // Spends one power-up to add bonus (1-3) to the seat's next move
+    public void usePowerUp(int seat, int bonus) {
+        if (powerUps[seat] > 0) {
+            powerUps[seat]--;
+            if (publishing()) {
+                publish(GameEvent.Type.POWER_UP_USED, seat, positions[seat], positions[seat], bonus);
+            }
+        }
+    }
+
+    public boolean isGameOver() {
+        return unfinishedCount == 0;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public boolean isAI(int seat) {
+        return ai[seat];
+    }
+
+    public int getPosition(int seat) {
+        return positions[seat];
+    }
+
+    public int getPowerUps(int seat) {
+        return powerUps[seat];
+    }
+
+    public boolean isSkipPending(int seat) {
+        return skipTurn[seat];
+    }
+
+    public boolean isFinished(int seat) {
+        return finished[seat];
+    }
+
+    public int getRank(int seat) {
+        return ranks[seat];
+    }
+
+    // Returns the seat that finished with the given rank, or -1 if none yet
+    public int getSeatWithRank(int rank) {
+        return seatByRank[rank];
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public boolean isPowerUpAvailable(int position) {
+        return board.isPowerUp(position) && powerUpAvailable[position];
+    }
+}
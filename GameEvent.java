@@ -0,0 +1,57 @@
+// Something that happened in the game, as reported by the engine. Events are
+// immutable, so they can be handed to consumers on other threads.
+public final class GameEvent {
+    public enum Type {
+        ROLLED,             // value: the die result
+        POWER_UP_USED,      // value: the bonus added to the roll, held: power-ups left
+        SKIPPED,            // the seat missed its turn because of a trap
+        MOVED,              // from -> to is the tile the roll lands on, value: roll including bonus;
+                            // from == to when the roll overshoots the last tile
+        TELEPORTED,         // from -> to
+        BITTEN,             // from -> to, down a snake
+        CLIMBED,            // from -> to, up a ladder
+        TRAPPED,            // to: the trap tile, the next turn will be skipped
+        POWER_UP_COLLECTED, // to: the power-up tile, held: power-ups now held
+        FINISHED            // to: the last tile, value: the rank reached
+    }
+
+    public final Type type;
+    public final int seat;
+    public final int from, to;
+    public final int value;
+    public final int held;
+
+    public GameEvent(Type type, int seat, int from, int to, int value, int held) {
+        this.type = type;
+        this.seat = seat;
+        this.from = from;
+        this.to = to;
+        this.value = value;
+        this.held = held;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(type.name()).append(" seat=").append(seat + 1);
+        switch (type) {
+            case ROLLED:
+                return text.append(" roll=").append(value).toString();
+            case POWER_UP_USED:
+                return text.append(" bonus=").append(value).append(" held=").append(held).toString();
+            case MOVED:
+                return text.append(' ').append(from).append("->").append(to).append(" roll=").append(value).toString();
+            case TELEPORTED:
+            case BITTEN:
+            case CLIMBED:
+                return text.append(' ').append(from).append("->").append(to).toString();
+            case TRAPPED:
+                return text.append(" tile=").append(to).toString();
+            case POWER_UP_COLLECTED:
+                return text.append(" tile=").append(to).append(" held=").append(held).toString();
+            case FINISHED:
+                return text.append(" rank=").append(value).toString();
+            default:
+                return text.toString();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Everything needed to continue a game, as one immutable fixed-size record:
+//
+//   fingerprint   8  board layout the game is played on
+//   AI seats      8  bit per seat
+//   dice          8  generator state
+//   seats         1
+//   to move       1  current seat
+//   per seat      8  position (4), power-ups (2), flags (1: skip, finished), rank (1)
+//   collected     one bit per power-up tile of the board, set once taken
+//
+// A three-seat game on the classic board is 51 bytes. Capturing and restoring
+// is a handful of array copies, so a state can be saved after every turn.
+public final class GameState {
+    private static final int HEADER_SIZE = 26;
+    private static final int SEAT_SIZE = 8;
+    private static final int SKIP = 1, FINISHED = 2;
+
+    private final byte[] record;
+
+    private GameState(byte[] record) {
+        this.record = record;
+    }
+
+    public static int recordSize(int seats, int powerUpTiles) {
+        return HEADER_SIZE + seats * SEAT_SIZE + (powerUpTiles + 7) / 8;
+    }
+
+    // Packs the given values; used by GameEngine.captureState
+    static GameState of(long fingerprint, boolean[] ai, long dice, int currentPlayer, int[] positions, int[] powerUps,
+                        boolean[] skipTurn, boolean[] finished, int[] ranks, boolean[] collected) {
+        int seats = positions.length;
+        ByteBuffer buffer = ByteBuffer.allocate(recordSize(seats, collected.length));
+        long aiMask = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            if (ai[seat]) aiMask |= 1L << seat;
+        }
+        buffer.putLong(fingerprint).putLong(aiMask).putLong(dice).put((byte) seats).put((byte) currentPlayer);
+        for (int seat = 0; seat < seats; seat++) {
+            buffer.putInt(positions[seat]);
+            buffer.putShort((short) powerUps[seat]);
+            buffer.put((byte) ((skipTurn[seat] ? SKIP : 0) | (finished[seat] ? FINISHED : 0)));
+            buffer.put((byte) ranks[seat]);
+        }
+        byte[] record = buffer.array();
+        int bits = buffer.position();
+        for (int i = 0; i < collected.length; i++) {
+            if (collected[i]) record[bits + i / 8] |= 1 << (i % 8);
+        }
+        return new GameState(record);
+    }
+
+    public static GameState fromBytes(byte[] record) {
+        if (record.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Game state is too short");
+        }
+        int seats = record[HEADER_SIZE - 2] & 0xFF;
+        if (seats < GameEngine.MIN_PLAYERS || seats > GameEngine.MAX_PLAYERS
+                || record.length < HEADER_SIZE + seats * SEAT_SIZE) {
+            throw new IllegalArgumentException("Game state has a bad seat count");
+        }
+        GameState state = new GameState(record.clone());
+        if (state.getCurrentPlayer() >= seats) {
+            throw new IllegalArgumentException("Game state gives the turn to a missing seat");
+        }
+        // Finished seats hold ranks 1..n once each, in the order they finished; the rest hold none
+        boolean[] taken = new boolean[seats + 1];
+        int finished = 0, lowest = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            int rank = state.getRank(seat);
+            if (state.isFinished(seat) ? rank < 1 || rank > seats || taken[rank] : rank != 0) {
+                throw new IllegalArgumentException("Game state ranks seat " + (seat + 1) + " inconsistently");
+            }
+            if (rank > 0) {
+                taken[rank] = true;
+                finished++;
+                lowest = Math.max(lowest, rank);
+            }
+        }
+        if (lowest != finished) {
+            throw new IllegalArgumentException("Game state skips a rank");
+        }
+        return state;
+    }
+
+    public byte[] toBytes() {
+        return record.clone();
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(record);
+    }
+
+    public int size() {
+        return record.length;
+    }
+
+    public void save(Path file) throws IOException {
+        Files.write(file, record);
+    }
+
+    public static GameState load(Path file) throws IOException {
+        try {
+            return fromBytes(Files.readAllBytes(file));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    public long getFingerprint() {
+        return getLong(0);
+    }
+
+    public boolean isAI(int seat) {
+        return (getLong(8) & (1L << seat)) != 0;
+    }
+
+    public boolean[] getAISeats() {
+        boolean[] ai = new boolean[getPlayerCount()];
+        for (int seat = 0; seat < ai.length; seat++) {
+            ai[seat] = isAI(seat);
+        }
+        return ai;
+    }
+
+    public long getDiceState() {
+        return getLong(16);
+    }
+
+    public int getPlayerCount() {
+        return record[24] & 0xFF;
+    }
+
+    public int getCurrentPlayer() {
+        return record[25] & 0xFF;
+    }
+
+    public int getPosition(int seat) {
+        int at = seatOffset(seat);
+        return (record[at] & 0xFF) << 24 | (record[at + 1] & 0xFF) << 16 | (record[at + 2] & 0xFF) << 8 | (record[at + 3] & 0xFF);
+    }
+
+    public int getPowerUps(int seat) {
+        int at = seatOffset(seat) + 4;
+        return (record[at] & 0xFF) << 8 | (record[at + 1] & 0xFF);
+    }
+
+    public boolean isSkipPending(int seat) {
+        return (record[seatOffset(seat) + 6] & SKIP) != 0;
+    }
+
+    public boolean isFinished(int seat) {
+        return (record[seatOffset(seat) + 6] & FINISHED) != 0;
+    }
+
+    public int getRank(int seat) {
+        return record[seatOffset(seat) + 7] & 0xFF;
+    }
+
+    // Whether the index-th power-up tile of the board (in tile order) has been collected
+    public boolean isCollected(int index) {
+        int at = HEADER_SIZE + getPlayerCount() * SEAT_SIZE + index / 8;
+        return at < record.length && (record[at] & (1 << (index % 8))) != 0;
+    }
+
+    private int seatOffset(int seat) {
+        return HEADER_SIZE + seat * SEAT_SIZE;
+    }
+
+    private long getLong(int at) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | (record[at + i] & 0xFF);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GameState && Arrays.equals(record, ((GameState) other).record);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(record);
+    }
+}
@@ -0,0 +1,65 @@
+// Undo/redo history of the states between turns. A History is immutable:
+// pushing, undoing and redoing return a new History that shares every other
+// entry with the old one, so keeping a snapshot per turn costs one small node
+// plus the turn's GameState. Each entry also remembers how many turns the
+// replay log held at that point, so the log can be rewound along with it.
+public final class History {
+    private static final class Entry {
+        final GameState state;
+        final int replayTurns;
+        final Entry next;
+
+        Entry(GameState state, int replayTurns, Entry next) {
+            this.state = state;
+            this.replayTurns = replayTurns;
+            this.next = next;
+        }
+    }
+
+    private final Entry past;   // current state first, then older ones
+    private final Entry future; // states undone, the next one to redo first
+
+    private History(Entry past, Entry future) {
+        this.past = past;
+        this.future = future;
+    }
+
+    public static History start(GameState state, int replayTurns) {
+        return new History(new Entry(state, replayTurns, null), null);
+    }
+
+    // Adds the state after a new turn; anything that could have been redone is dropped
+    public History push(GameState state, int replayTurns) {
+        return new History(new Entry(state, replayTurns, past), null);
+    }
+
+    public boolean canUndo() {
+        return past.next != null;
+    }
+
+    public boolean canRedo() {
+        return future != null;
+    }
+
+    public History undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        return new History(past.next, new Entry(past.state, past.replayTurns, future));
+    }
+
+    public History redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        return new History(new Entry(future.state, future.replayTurns, past), future.next);
+    }
+
+    public GameState current() {
+        return past.state;
+    }
+
+    public int getReplayTurns() {
+        return past.replayTurns;
+    }
+}
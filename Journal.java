@@ -0,0 +1,214 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Crash-safe autosave. Every resolved turn appends its GameState to a
+// write-ahead log (length, CRC32, record) from a background thread, so the EDT
+// never touches the disk. fsync is group-committed: at most one flush per sync
+// interval covers every record written since the last one. After
+// COMPACT_EVERY records the latest state becomes the snapshot and the log
+// starts over, which bounds how much recovery has to read.
+//
+// Recovery takes the snapshot, then the last record of the log whose length
+// and checksum are intact; a torn record at the end is cut off.
+public class Journal implements Closeable {
+    private static final int COMPACT_EVERY = 1000;
+    private static final int HEADER_SIZE = 8;
+    private static final String LOG_FILE = "journal.log";
+    private static final String SNAPSHOT_FILE = "snapshot.state";
+
+    private final Path directory;
+    private final Path snapshotFile;
+    private final FileChannel log;
+    private final ScheduledExecutorService writer;
+    private final GameState recovered;
+    // Only touched on the writer thread
+    private final CRC32 crc = new CRC32();
+    private int recordsSinceSnapshot;
+    private boolean unsynced;
+
+    public Journal(Path directory, int syncIntervalMillis) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        log = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recovered = recover();
+
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = Math.max(1, syncIntervalMillis);
+        writer.scheduleWithFixedDelay(this::sync, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // The last consistent state found when the journal was opened, or null for none
+    public GameState getRecovered() {
+        return recovered;
+    }
+
+    // Queues a state to be logged; returns at once
+    public void append(GameState state) {
+        writer.execute(() -> {
+            try {
+                writeFully(log, frame(state.toBytes()));
+                unsynced = true;
+                if (++recordsSinceSnapshot >= COMPACT_EVERY) {
+                    compact(state);
+                }
+            } catch (IOException e) {
+                System.err.println("Autosave failed: " + e.getMessage());
+            }
+        });
+    }
+
+    // Forgets the saved game, e.g. once it has been played to the end
+    public void clear() {
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(snapshotFile);
+                syncDirectory();
+                log.truncate(0);
+                log.force(false);
+                recordsSinceSnapshot = 0;
+                unsynced = false;
+            } catch (IOException e) {
+                System.err.println("Could not clear the autosave: " + e.getMessage());
+            }
+        });
+    }
+
+    // Flushes whatever is still queued and closes the log
+    @Override
+    public void close() throws IOException {
+        writer.execute(this::sync);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    private void sync() {
+        if (!unsynced) {
+            return;
+        }
+        try {
+            log.force(false);
+            unsynced = false;
+        } catch (IOException e) {
+            System.err.println("Autosave sync failed: " + e.getMessage());
+        }
+    }
+
+    // The snapshot, and its rename in the directory, are made durable before the log
+    // is cut, so a crash in between still leaves either the old log or the new
+    // snapshot to recover from
+    private void compact(GameState state) throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, frame(state.toBytes()));
+            out.force(true);
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        log.truncate(0);
+        log.force(false);
+        recordsSinceSnapshot = 0;
+        unsynced = false;
+    }
+
+    // A rename or delete is only durable once the directory entry itself is flushed
+    private void syncDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return; // Windows cannot open a directory, and NTFS journals the rename itself
+        }
+        try (FileChannel opened = channel) {
+            opened.force(true);
+        }
+    }
+
+    // A channel may write less than asked, so keep going until the buffer is drained
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private ByteBuffer frame(byte[] record) {
+        crc.reset();
+        crc.update(record);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + record.length);
+        buffer.putInt(record.length).putInt((int) crc.getValue()).put(record).flip();
+        return buffer;
+    }
+
+    private GameState recover() throws IOException {
+        GameState latest = null;
+        if (Files.exists(snapshotFile)) {
+            byte[] data = Files.readAllBytes(snapshotFile);
+            latest = readRecord(ByteBuffer.wrap(data));
+        }
+
+        ByteBuffer data = ByteBuffer.allocate((int) log.size());
+        log.read(data, 0);
+        data.flip();
+        int records = 0;
+        while (data.hasRemaining()) {
+            int start = data.position();
+            GameState state = readRecord(data);
+            if (state == null) {
+                // A torn or corrupt record ends the usable log; drop it and anything after it
+                System.err.println("Autosave: discarding " + (data.limit() - start) + " damaged bytes at the end of the journal");
+                log.truncate(start);
+                break;
+            }
+            latest = state;
+            records++;
+        }
+        log.position(log.size());
+        recordsSinceSnapshot = records;
+        return latest;
+    }
+
+    // Reads one framed record, or returns null if it is incomplete or fails its checksum
+    private GameState readRecord(ByteBuffer data) {
+        if (data.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        int length = data.getInt();
+        int checksum = data.getInt();
+        if (length <= 0 || length > data.remaining()) {
+            return null;
+        }
+        byte[] record = new byte[length];
+        data.get(record);
+        crc.reset();
+        crc.update(record);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        try {
+            return GameState.fromBytes(record);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
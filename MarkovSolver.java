@@ -0,0 +1,92 @@
+// Expected number of turns a seat still needs to finish, from every tile
+// of a board. The board is treated as an absorbing Markov chain over the tile a
+// seat rests on: each turn one of six rolls moves it along destination(), a
+// roll past the last tile leaves it where it is, and landing on a trap costs
+// one extra turn. That gives one linear equation per tile,
+//
+//   6 E[t] = 6 + traps(t) + sum over rolls of E[destination(t, roll)]
+//
+// with E = 0 on the last tile. Every tile can reach the end (Board checks), so
+// Gauss-Seidel value iteration settles it, as PowerUpPolicy does for its layers.
+// Power-ups are not part of the chain; PowerUpAI values them separately.
+//
+// Sweeping from the top of the board down, ordinary moves and ladders already
+// read this sweep's values and only snakes read the last one's, so a board
+// without snakes is exact after one sweep and the classic board takes a few
+// dozen. The sweeps needed grow with the snakes a seat meets in a game (some
+// 1,300 for 10,000 tiles and 500 snakes), and memory stays linear in the board,
+// which a dense elimination over boards up to BoardLoader.MAX_SIZE would not.
+// Past MAX_UPDATES tile updates, as on boards of some hundred thousand tiles
+// full of snakes, the values stand as they are: they only ever rise towards
+// the truth, so they fall short of it but still rank the tiles for PowerUpAI's
+// scoring rules.
+public final class MarkovSolver {
+    private static final double TOLERANCE = 1e-13; // relative change of the largest mover in a sweep
+    private static final long MAX_UPDATES = 100_000_000L; // a few seconds of sweeping at most
+    private final Board board;
+    private final double[] expectedTurns;  // by resting tile; 0 at the end
+    private final double[] turnsAfterLanding; // by landing tile, jumps and trap included
+
+    public MarkovSolver(Board board) {
+        this.board = board;
+        expectedTurns = solve(board);
+        int size = board.size();
+        turnsAfterLanding = new double[size + 1];
+        for (int tile = 1; tile <= size; tile++) {
+            int rest = board.resolve(tile);
+            turnsAfterLanding[tile] = expectedTurns[rest] + (board.isTrap(rest) ? 1 : 0);
+        }
+    }
+
+    private static double[] solve(Board board) {
+        int size = board.size();
+        double[] byTile = new double[size + 1];
+        long maxSweeps = Math.max(1, MAX_UPDATES / size);
+        double change;
+        int sweeps = 0;
+        do {
+            change = 0;
+            for (int tile = size - 1; tile >= 1; tile--) {
+                double total = 6;
+                int moving = 6;
+                for (int roll = 1; roll <= 6; roll++) {
+                    int next = board.destination(tile, roll);
+                    if (tile + roll > size || next == tile) {
+                        moving--; // the seat stays put, with no tile effect unless it landed there
+                        if (tile + roll <= size && board.isTrap(next)) total += 1;
+                        continue;
+                    }
+                    if (next >= size) {
+                        continue; // finished
+                    }
+                    total += byTile[next] + (board.isTrap(next) ? 1 : 0);
+                }
+                double value = total / moving;
+                change = Math.max(change, Math.abs(value - byTile[tile]) / value);
+                byTile[tile] = value;
+            }
+        } while (change > TOLERANCE && ++sweeps < maxSweeps);
+        return byTile;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    // Expected turns to finish for a seat resting on the tile
+    public double expectedTurns(int tile) {
+        return expectedTurns[tile];
+    }
+
+    // Expected turns to finish after a move lands on the tile, counting whatever
+    // jump it triggers and the turn lost to a trap
+    public double turnsAfterLanding(int tile) {
+        return turnsAfterLanding[tile];
+    }
+
+    // Share of the whole game's expected length already behind a seat landing on
+    // the tile: 0 at the start, 1 once finished
+    public double progress(int tile) {
+        return 1 - turnsAfterLanding[tile] / expectedTurns[1];
+    }
+}
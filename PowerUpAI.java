@@ -0,0 +1,282 @@
+import java.util.Arrays;
+
+// The AI's power-up choice. It only reads an immutable GameState, never the
+// live engine, so it can think on a background thread while the game keeps
+// running on the EDT (see AiWorker).
+//
+// Decisions come from the board's precomputed PowerUpPolicy. Boards too big
+// for a policy table, by power-up tiles or by tiles overall, or too slow to
+// solve one for, fall back to the scoring rules below.
+// When every seat left is deep in the endgame and the board's EndgameTablebase
+// has been built, the bonus comes from that table instead, which plays for the
+// win against the other seats rather than for the fewest turns.
+public class PowerUpAI {
+    private final Board board;
+    private final int[] powerUpIndex; // tile -> bit in GameState's collected set, -1 if none
+    private final boolean verbose; // print the analysis behind each decision
+    private MarkovSolver solver; // expected turns from every tile, solved on first use; guarded by this
+    private final PowerUpPolicy policy; // null when the board is too big or too slow for a policy table
+    private final EndgameTablebase tablebase; // null until one is built for the board
+
+    // What the AI decided for one roll, with the values it weighed
+    public static final class Decision {
+        public final int seat;
+        public final int diceRoll;
+        public final int bonus; // 0 to move by the roll alone
+        public final double regularValue;
+        public final double chosenValue;
+        // True when the values are expected turns to finish (lower is better),
+        // false for evaluatePosition scores (higher is better)
+        public final boolean expectedTurns;
+
+        Decision(int seat, int diceRoll, int bonus, double regularValue, double chosenValue, boolean expectedTurns) {
+            this.seat = seat;
+            this.diceRoll = diceRoll;
+            this.bonus = bonus;
+            this.regularValue = regularValue;
+            this.chosenValue = chosenValue;
+            this.expectedTurns = expectedTurns;
+        }
+    }
+
+    public PowerUpAI(Board board, boolean verbose) {
+        this.board = board;
+        this.verbose = verbose;
+        policy = policyFor(board);
+        tablebase = EndgameTablebase.shared(board);
+        powerUpIndex = new int[board.size() + 1];
+        Arrays.fill(powerUpIndex, -1);
+        int[] tiles = board.getPowerUpTiles();
+        for (int i = 0; i < tiles.length; i++) {
+            powerUpIndex[tiles[i]] = i;
+        }
+    }
+
+    // The board's policy, or null when its table is too big or too slow to solve
+    private static PowerUpPolicy policyFor(Board board) {
+        if (!PowerUpPolicy.fits(board)) {
+            return null;
+        }
+        try {
+            return new PowerUpPolicy(board);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    boolean isVerbose() {
+        return verbose;
+    }
+
+    PowerUpPolicy getPolicy() {
+        return policy;
+    }
+
+    EndgameTablebase getTablebase() {
+        return tablebase;
+    }
+
+    // Decides whether and how far the seat to move boosts its roll
+    public Decision decide(GameState state, int diceRoll) {
+        int seat = state.getCurrentPlayer();
+        int endgameBonus = -1;
+        if (tablebase != null && state.getPowerUps(seat) > 0) {
+            endgameBonus = tablebase.bestBonus(state, diceRoll);
+            if (verbose && endgameBonus >= 0) {
+                System.out.println("AI endgame table with roll " + diceRoll + ": +" + endgameBonus
+                        + " (win chance " + tablebase.winProbability(state, seat) + ")");
+            }
+        }
+        if (policy != null) {
+            int tile = state.getPosition(seat);
+            int held = state.getPowerUps(seat);
+            int remaining = policy.remainingMask(state);
+            int bonus = endgameBonus >= 0 ? endgameBonus : held > 0 ? policy.bonus(tile, held, remaining, diceRoll) : 0;
+            double regularTurns = policy.expectedTurns(tile, held, remaining, diceRoll, 0);
+            double chosenTurns = policy.expectedTurns(tile, held, remaining, diceRoll, bonus);
+            if (verbose && held > 0 && endgameBonus < 0) {
+                System.out.println("AI policy from " + tile + " with roll " + diceRoll + " and " + held
+                        + " power-ups: +" + bonus + " (expected turns " + chosenTurns + ", " + regularTurns + " without)");
+            }
+            return new Decision(seat, diceRoll, bonus, regularTurns, chosenTurns, true);
+        }
+        int regularPosition = state.getPosition(seat) + diceRoll;
+        double regularValue = evaluatePosition(state, seat, regularPosition);
+        int bonus = endgameBonus >= 0 ? endgameBonus
+                : shouldUsePowerUp(state, seat, diceRoll) ? getPowerUpDecision(state, seat, diceRoll) : 0;
+        double chosenValue = bonus == 0 ? regularValue : evaluatePosition(state, seat, regularPosition + bonus);
+        return new Decision(seat, diceRoll, bonus, regularValue, chosenValue, false);
+    }
+
+    public boolean isPowerUpAvailable(GameState state, int position) {
+        return board.isPowerUp(position) && !state.isCollected(powerUpIndex[position]);
+    }
+
+    public boolean shouldUsePowerUp(GameState state, int seat, int diceRoll) {
+        if (state.getPowerUps(seat) == 0) return false;
+
+        int aiPosition = state.getPosition(seat);
+
+        // Calculate current positions and distances
+        int regularPosition = aiPosition + diceRoll;
+        int maxPlayerPosition = 0;
+        for (int other = 0; other < state.getPlayerCount(); other++) {
+            if (other != seat) {
+                maxPlayerPosition = Math.max(maxPlayerPosition, state.getPosition(other));
+            }
+        }
+        int distanceToLeader = maxPlayerPosition - aiPosition;
+
+        // Don't use power-up if AI is leading and no immediate threats
+        if (aiPosition > maxPlayerPosition && !board.isSnake(regularPosition)) {
+            // Save power-up unless very close to winning
+            if (aiPosition + diceRoll < 95) {
+                if (verbose) System.out.println("AI is leading, saving power-up for critical situations");
+                return false;
+            }
+        }
+
+        // Check if any player is close to winning (position > 90)
+        boolean playersNearWin = maxPlayerPosition > 90;
+
+        // Calculate value of using vs. not using power-up
+        double regularMoveValue = evaluatePosition(state, seat, regularPosition);
+        double bestPowerUpValue = regularMoveValue;
+
+        // Analyze each power-up option
+        for (int i = 1; i <= 3; i++) {
+            int newPos = aiPosition + diceRoll + i;
+            if (newPos <= board.size()) {
+                double value = evaluatePosition(state, seat, newPos);
+                // Increase value if position leads to immediate benefits
+                if (board.isLadder(newPos) || board.isTeleport(newPos)) {
+                    value += 0.3; // Significant bonus for immediate advantages
+                }
+                if (value > bestPowerUpValue) {
+                    bestPowerUpValue = value;
+                }
+            }
+        }
+
+        // Debug information
+        if (verbose) {
+            System.out.println("AI Decision Analysis:");
+            System.out.println("Distance to leader: " + distanceToLeader);
+            System.out.println("Players near win: " + playersNearWin);
+            System.out.println("Regular move value: " + regularMoveValue);
+            System.out.println("Best power-up value: " + bestPowerUpValue);
+        }
+
+        // Decision criteria
+        boolean shouldUse = false;
+
+        // Use power-up if:
+        // 1. Players are near winning and AI needs to catch up
+        if (playersNearWin && distanceToLeader > 0) {
+            shouldUse = true;
+        }
+        // 2. Regular move leads to a snake
+        else if (board.isSnake(regularPosition)) {
+            shouldUse = true;
+        }
+        // 3. Power-up leads to significant advantage (ladder/teleport)
+        else if (bestPowerUpValue > regularMoveValue + 0.3) {
+            shouldUse = true;
+        }
+        // 4. Very close to winning (>95) and power-up helps
+        else if (aiPosition > 95 && bestPowerUpValue > regularMoveValue) {
+            shouldUse = true;
+        }
+        // 5. Significantly behind other players (>20 spaces)
+        else if (distanceToLeader > 20 && bestPowerUpValue > regularMoveValue) {
+            shouldUse = true;
+        }
+
+        if (verbose) System.out.println("AI will use power-up: " + shouldUse);
+        return shouldUse;
+    }
+
+    public int getPowerUpDecision(GameState state, int seat, int diceRoll) {
+        if (state.getPowerUps(seat) == 0) return 0;
+
+        int aiPosition = state.getPosition(seat);
+        int bestPowerUp = 0;
+        double bestValue = evaluatePosition(state, seat, aiPosition + diceRoll);
+
+        if (verbose) {
+            System.out.println("AI Power-Up Analysis for position " + aiPosition + " with roll " + diceRoll);
+            System.out.println("Regular move value: " + bestValue);
+        }
+
+        // Evaluate each power-up option
+        for (int i = 1; i <= 3; i++) {
+            int newPos = aiPosition + diceRoll + i;
+            if (newPos <= board.size()) {
+                double value = evaluatePosition(state, seat, newPos);
+                if (verbose) System.out.println("Power-up +" + i + " to position " + newPos + " has value " + value);
+
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestPowerUp = i;
+                }
+            }
+        }
+
+        if (verbose) System.out.println("AI chose power-up: +" + bestPowerUp);
+        return bestPowerUp;
+    }
+
+    // Only the scoring rules need the solver, and a policy board never reaches them in play
+    private synchronized MarkovSolver solver() {
+        if (solver == null) {
+            solver = new MarkovSolver(board);
+        }
+        return solver;
+    }
+
+    public double evaluatePosition(GameState state, int seat, int position) {
+        if (position > board.size()) return 0;
+
+        // Base value is the share of the expected game already behind the seat once it
+        // lands here (0-1). The exact solution prices in snakes, ladders, teleports,
+        // the turn a trap costs and the exact roll needed to finish.
+        double value = solver().progress(position);
+
+        // Add urgency if falling behind any other player
+        boolean farBehind = false;
+        boolean isBehind = false;
+        boolean isLeading = true;
+        for (int other = 0; other < state.getPlayerCount(); other++) {
+            if (other == seat) continue;
+            int otherPosition = state.getPosition(other);
+            if (otherPosition - position > 20) farBehind = true;
+            if (position < otherPosition) isBehind = true;
+            if (position <= otherPosition) isLeading = false;
+        }
+        if (farBehind) {
+            value += 0.2; // Increase value when significantly behind
+        }
+
+        // Power-ups are not part of the Markov chain, so they are valued here
+        if (isPowerUpAvailable(state, position)) {
+            // Value power-ups more when behind or near win
+            boolean isNearWin = position > 80;
+            if (isBehind || isNearWin) {
+                value += 0.35;
+            } else {
+                value += 0.2;
+            }
+        }
+
+        // Consider relative position to other players
+        if (isLeading) {
+            value += 0.1; // Bonus for maintaining lead
+        }
+
+        return value;
+    }
+}
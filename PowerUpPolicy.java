@@ -0,0 +1,266 @@
+import java.util.Arrays;
+
+// Optimal power-up play for one seat, solved as a Markov decision process over
+// (tile, power-ups held, power-up tiles still on the board). Each turn the seat
+// sees its roll and picks a bonus of 0 to 3; using one spends a power-up, and
+// landing on a remaining power-up tile collects it. The policy minimises the
+// expected number of turns to finish, with a trap costing one extra turn and a
+// move past the last tile leaving the seat in place, as in GameEngine.
+//
+// Power-ups held only go down and remaining tiles only go away, so the layers
+// (remaining, held) are solved in dependency order: fewer remaining tiles
+// first, then fewer held. Inside one layer the only unknowns are that layer's
+// tiles (a plain move without collecting anything), which Gauss-Seidel value
+// iteration settles in a few hundred sweeps because of snakes. Everything else
+// an action can lead to is already solved.
+//
+// The result is one byte per (state, roll), read at play time with a single
+// array access. Boards with more than MAX_POWER_UP_TILES power-up tiles are
+// rejected, since the table doubles with each one, as are boards whose table
+// would pass MAX_STATES states; fits() tells them apart beforehand. A board
+// whose layers would take more than MAX_UPDATES tile updates to settle, such
+// as a long one full of snakes, is rejected once the first layers show it.
+public final class PowerUpPolicy {
+    public static final int MAX_POWER_UP_TILES = 10;
+    public static final int MAX_STATES = 1 << 22; // some 60 MB of policy and values
+    private static final double TOLERANCE = 1e-10; // ties between bonuses, and the relative change that settles a layer
+    private static final long MAX_UPDATES = 20_000_000L; // a few seconds of solving at most
+    private static final double NEGLIGIBLE = 1e-20; // mass dropped by cumulative(), as in TurnDistribution
+
+    private final Board board;
+    private final int size;
+    private final int tiles;          // power-up tiles on the board
+    private final int[] powerUpIndex; // tile -> bit in the remaining mask, -1 if none
+    private final byte[] policy;      // [state * 6 + roll - 1] -> bonus
+    private final double[] values;    // [state] -> expected turns to finish
+    private long updates;             // tile updates so far, held to MAX_UPDATES
+
+    public PowerUpPolicy(Board board) {
+        this.board = board;
+        size = board.size();
+        int[] powerUpTiles = board.getPowerUpTiles();
+        tiles = powerUpTiles.length;
+        if (tiles > MAX_POWER_UP_TILES) {
+            throw new IllegalArgumentException("A power-up policy handles at most " + MAX_POWER_UP_TILES
+                    + " power-up tiles, the board has " + tiles);
+        }
+        powerUpIndex = new int[size + 1];
+        Arrays.fill(powerUpIndex, -1);
+        for (int i = 0; i < tiles; i++) {
+            powerUpIndex[powerUpTiles[i]] = i;
+        }
+        long count = states(tiles, size);
+        if (count > MAX_STATES) {
+            throw new IllegalArgumentException("A power-up policy handles at most " + MAX_STATES
+                    + " states, the board needs " + count);
+        }
+        int states = (int) count;
+        policy = new byte[states * 6];
+        values = new double[states];
+        solve();
+    }
+
+    // Whether a policy can be built for the board, within both limits
+    public static boolean fits(Board board) {
+        int tiles = board.getPowerUpTiles().length;
+        return tiles <= MAX_POWER_UP_TILES && states(tiles, board.size()) <= MAX_STATES;
+    }
+
+    private static long states(int tiles, int size) {
+        return (1L << tiles) * (tiles + 1) * (size + 1);
+    }
+
+    private int state(int remaining, int held, int tile) {
+        return (remaining * (tiles + 1) + held) * (size + 1) + tile;
+    }
+
+    private void solve() {
+        // Masks with fewer tiles left come first; a mask is only ever followed by its subsets
+        Integer[] masks = new Integer[1 << tiles];
+        for (int mask = 0; mask < masks.length; mask++) masks[mask] = mask;
+        Arrays.sort(masks, (a, b) -> Integer.bitCount(a) - Integer.bitCount(b));
+
+        int layers = 0;
+        for (int remaining : masks) layers += tiles - Integer.bitCount(remaining) + 1;
+        int solved = 0;
+        for (int remaining : masks) {
+            // A seat can hold at most the power-ups already taken off the board
+            int maxHeld = tiles - Integer.bitCount(remaining);
+            for (int held = 0; held <= maxHeld; held++) {
+                solveLayer(remaining, held);
+                // Layers settle in much the same number of sweeps, so the first few show whether the rest fit
+                if (updates / ++solved * layers > MAX_UPDATES) {
+                    throw tooSlow();
+                }
+            }
+        }
+    }
+
+    private void solveLayer(int remaining, int held) {
+        int base = state(remaining, held, 0);
+        double change;
+        do {
+            updates += size - 1;
+            if (updates > MAX_UPDATES) {
+                throw tooSlow();
+            }
+            change = 0;
+            for (int tile = size - 1; tile >= 1; tile--) {
+                double total = 0;
+                for (int roll = 1; roll <= 6; roll++) {
+                    int best = 0;
+                    double bestCost = cost(remaining, held, tile, roll, 0);
+                    for (int bonus = 1; bonus <= 3 && held > 0; bonus++) {
+                        double cost = cost(remaining, held, tile, roll, bonus);
+                        if (cost < bestCost - TOLERANCE) {
+                            best = bonus;
+                            bestCost = cost;
+                        }
+                    }
+                    policy[(base + tile) * 6 + roll - 1] = (byte) best;
+                    total += bestCost;
+                }
+                double value = 1 + total / 6;
+                change = Math.max(change, Math.abs(value - values[base + tile]) / value);
+                values[base + tile] = value;
+            }
+        } while (change > TOLERANCE);
+    }
+
+    private IllegalArgumentException tooSlow() {
+        return new IllegalArgumentException("A power-up policy for the board needs over " + MAX_UPDATES
+                + " updates to settle");
+    }
+
+    // Expected turns still needed after this turn's move, including a turn lost to a trap
+    private double cost(int remaining, int held, int tile, int roll, int bonus) {
+        int left = bonus > 0 ? held - 1 : held;
+        if (tile + roll + bonus > size) {
+            return values[state(remaining, left, tile)]; // overshoot: stays put
+        }
+        int next = board.destination(tile, roll + bonus);
+        if (next >= size) {
+            return 0;
+        }
+        int index = powerUpIndex[next];
+        if (index >= 0 && (remaining & 1 << index) != 0) {
+            return values[state(remaining & ~(1 << index), left + 1, next)];
+        }
+        return values[state(remaining, left, next)] + (board.isTrap(next) ? 1 : 0);
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    // Bit i of the mask is set while the board's i-th power-up tile can still be collected
+    public int remainingMask(GameState state) {
+        int mask = 0;
+        for (int i = 0; i < tiles; i++) {
+            if (!state.isCollected(i)) mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    // The bonus (0 to save the power-up) to add to this roll
+    public int bonus(int tile, int held, int remaining, int roll) {
+        return policy[state(remaining, Math.min(held, tiles), tile) * 6 + roll - 1];
+    }
+
+    // Expected turns to finish from the start of a turn, playing the policy from then on
+    public double expectedTurns(int tile, int held, int remaining) {
+        return tile >= size ? 0 : values[state(remaining, Math.min(held, tiles), tile)];
+    }
+
+    // Expected turns to finish after moving by roll + bonus this turn, counting this turn
+    public double expectedTurns(int tile, int held, int remaining, int roll, int bonus) {
+        held = Math.min(held, tiles);
+        return 1 + cost(remaining, held, tile, roll, held > 0 ? bonus : 0);
+    }
+
+    // As TurnDistribution.cumulative, for a seat playing this policy with its power-ups,
+    // assuming no other seat takes a remaining power-up tile first. Only the states
+    // still holding mass are visited, since few of the (remaining, held) layers are
+    // reachable from any one start.
+    public double[] cumulative(int tile, boolean skipPending, int held, int remaining) {
+        if (tile >= size) {
+            return new double[] {1};
+        }
+        // Slots are state * 2 + (1 if a trapped turn is pending)
+        Frontier current = new Frontier(values.length * 2), next = new Frontier(values.length * 2);
+        current.add(state(remaining, Math.min(held, tiles), tile) * 2 + (skipPending ? 1 : 0), 1);
+
+        double[] result = new double[64];
+        double finished = 0;
+        int turn = 0;
+        while (1 - finished > TurnDistribution.TAIL && turn < TurnDistribution.MAX_TURNS) {
+            for (int i = 0; i < current.count; i++) {
+                int slot = current.slots[i];
+                double weight = current.mass[slot];
+                current.mass[slot] = 0;
+                int state = slot >> 1;
+                if ((slot & 1) != 0) {
+                    next.add(state * 2, weight); // the trapped turn passes with the seat where it is
+                    continue;
+                }
+                double share = weight / 6;
+                if (share <= NEGLIGIBLE) {
+                    continue;
+                }
+                int at = state % (size + 1);
+                int carried = state / (size + 1) % (tiles + 1);
+                int mask = state / ((size + 1) * (tiles + 1));
+                for (int roll = 1; roll <= 6; roll++) {
+                    int bonus = policy[state * 6 + roll - 1];
+                    int left = bonus > 0 ? carried - 1 : carried;
+                    if (at + roll + bonus > size) {
+                        next.add(state(mask, left, at) * 2, share); // overshoot: stays put
+                        continue;
+                    }
+                    int landed = board.destination(at, roll + bonus);
+                    if (landed >= size) {
+                        finished += share;
+                        continue;
+                    }
+                    int index = powerUpIndex[landed];
+                    if (index >= 0 && (mask & 1 << index) != 0) {
+                        next.add(state(mask & ~(1 << index), left + 1, landed) * 2, share);
+                    } else {
+                        next.add(state(mask, left, landed) * 2 + (board.isTrap(landed) ? 1 : 0), share);
+                    }
+                }
+            }
+            current.count = 0;
+            Frontier swap = current;
+            current = next;
+            next = swap;
+
+            if (++turn == result.length) {
+                result = Arrays.copyOf(result, result.length * 2);
+            }
+            result[turn] = Math.min(1, finished);
+        }
+        return Arrays.copyOf(result, turn + 1);
+    }
+
+    // Probability mass over slots, with a list of the slots that hold any
+    private static final class Frontier {
+        final double[] mass;
+        int[] slots = new int[64];
+        int count;
+
+        Frontier(int size) {
+            mass = new double[size];
+        }
+
+        void add(int slot, double weight) {
+            if (mass[slot] == 0) {
+                if (count == slots.length) {
+                    slots = Arrays.copyOf(slots, count * 2);
+                }
+                slots[count++] = slot;
+            }
+            mass[slot] += weight;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Compact record of one game: the GameState it started from (board
+// fingerprint, seats and dice seed included) and five bits per played turn
+// (three for the roll, two for the power-up bonus). Skipped turns follow from
+// the rules and are not stored. Every CHECKPOINT_INTERVAL turns the full
+// GameState is kept as well, so seeking to any turn replays at most
+// CHECKPOINT_INTERVAL - 1 turns.
+//
+// As an event subscriber it records every move the engine reports, together
+// with the roll and power-up bonus reported before it.
+//
+// Usage: ReplayLog replay-file [turn] [board-file]
+// prints where every seat stood before the given turn (default: the end).
+public class ReplayLog implements Consumer<GameEvent> {
+    public static final int CHECKPOINT_INTERVAL = 64;
+    private static final int MAGIC = 0x534C5250; // "SLRP"
+    private static final int VERSION = 2;
+    private static final int BITS_PER_TURN = 5;
+
+    private final Board board;
+    private final GameState start;
+    private long[] packedTurns = new long[4];
+    private int turnCount;
+    // Turns still stored past turnCount after a rewind; they can be rewound to until a new turn is recorded
+    private int recordedCount;
+    private final List<GameState> checkpoints = new ArrayList<>();
+    // Follows the recorded game so checkpoints can be taken without touching the live engine
+    private GameEngine shadow;
+    // Roll and bonus of the turn being reported through events
+    private int eventRoll, eventBonus;
+
+    // Records a game from the given state on, usually the start of a round
+    public ReplayLog(Board board, GameState start) {
+        this.board = board;
+        this.start = start;
+        shadow = new GameEngine(board, start);
+    }
+
+    @Override
+    public void accept(GameEvent event) {
+        switch (event.type) {
+            case ROLLED:
+                eventRoll = event.value;
+                eventBonus = 0;
+                break;
+            case POWER_UP_USED:
+                eventBonus = event.value;
+                break;
+            case MOVED:
+                record(eventRoll, eventBonus);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Records one played turn: the die result and the power-up bonus (0 for none) added to it
+    public void record(int roll, int bonus) {
+        if (roll < 1 || roll > 6 || bonus < 0 || bonus > 3) {
+            throw new IllegalArgumentException("Cannot record a roll of " + roll + " with bonus " + bonus);
+        }
+        // Checkpoints after the current turn belong to turns that were rewound away
+        checkpoints.subList(Math.min(validCheckpoints(), checkpoints.size()), checkpoints.size()).clear();
+        if (turnCount % CHECKPOINT_INTERVAL == 0 && checkpoints.size() == turnCount / CHECKPOINT_INTERVAL) {
+            checkpoints.add(shadow.captureState());
+        }
+        play(shadow, roll, bonus);
+
+        long bitIndex = (long) turnCount * BITS_PER_TURN;
+        int word = (int) (bitIndex >>> 6);
+        if (word + 1 >= packedTurns.length) {
+            packedTurns = Arrays.copyOf(packedTurns, packedTurns.length * 2);
+        }
+        long entry = (roll - 1) | (bonus << 3);
+        long mask = (1L << BITS_PER_TURN) - 1;
+        int shift = (int) (bitIndex & 63);
+        packedTurns[word] = (packedTurns[word] & ~(mask << shift)) | entry << shift;
+        if (shift > 64 - BITS_PER_TURN) {
+            packedTurns[word + 1] = (packedTurns[word + 1] & ~(mask >>> (64 - shift))) | entry >>> (64 - shift);
+        }
+        turnCount++;
+        recordedCount = turnCount;
+    }
+
+    // Moves the end of the log back to an earlier turn, or forward again over turns
+    // that were rewound but not yet overwritten; used by undo and redo
+    public void rewind(int turns) {
+        if (turns < 0 || turns > recordedCount) {
+            throw new IndexOutOfBoundsException("Turn " + turns + " of " + recordedCount);
+        }
+        turnCount = turns;
+        shadow = replayTo(turns);
+    }
+
+    // Checkpoint k holds the state before turn k * CHECKPOINT_INTERVAL and stays
+    // valid for as long as the turns before it are part of the log
+    private int validCheckpoints() {
+        return turnCount / CHECKPOINT_INTERVAL + 1;
+    }
+
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    public int getRoll(int turn) {
+        return (checkedEntry(turn) & 7) + 1;
+    }
+
+    public int getBonus(int turn) {
+        return checkedEntry(turn) >>> 3;
+    }
+
+    private int checkedEntry(int turn) {
+        if (turn < 0 || turn >= turnCount) {
+            throw new IndexOutOfBoundsException("Turn " + turn + " of " + turnCount);
+        }
+        return entry(turn);
+    }
+
+    private int entry(int turn) {
+        long bitIndex = (long) turn * BITS_PER_TURN;
+        int word = (int) (bitIndex >>> 6);
+        int shift = (int) (bitIndex & 63);
+        long bits = packedTurns[word] >>> shift;
+        if (shift > 64 - BITS_PER_TURN) {
+            bits |= packedTurns[word + 1] << (64 - shift);
+        }
+        return (int) (bits & ((1 << BITS_PER_TURN) - 1));
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public GameState getStart() {
+        return start;
+    }
+
+    // A fresh engine standing just before the given recorded turn (0..getTurnCount())
+    public GameEngine seek(int turn) {
+        if (turn < 0 || turn > turnCount) {
+            throw new IndexOutOfBoundsException("Turn " + turn + " of " + turnCount);
+        }
+        return replayTo(turn);
+    }
+
+    // Like seek, but may also go into turns kept after a rewind
+    private GameEngine replayTo(int turn) {
+        GameEngine engine = new GameEngine(board, start);
+        int checkpoint = Math.min(turn / CHECKPOINT_INTERVAL, checkpoints.size() - 1);
+        int played = 0;
+        if (checkpoint > 0) {
+            engine.restoreState(checkpoints.get(checkpoint));
+            played = checkpoint * CHECKPOINT_INTERVAL;
+        }
+        for (; played < turn; played++) {
+            int entry = entry(played);
+            play(engine, (entry & 7) + 1, entry >>> 3);
+        }
+        return engine;
+    }
+
+    // Applies one recorded turn, then passes over any seats that must skip. A start
+    // state captured between turns (a loaded save, a recovered journal) may still owe
+    // the seat to move a trapped turn, so skips are passed over first as well.
+    private static void play(GameEngine engine, int roll, int bonus) {
+        while (!engine.isGameOver() && engine.consumeSkip()) {
+            engine.endTurn();
+        }
+        int rolled = engine.rollDice();
+        if (rolled != roll) {
+            throw new IllegalStateException("Recorded roll " + roll + " does not follow the seed (expected " + rolled + ")");
+        }
+        if (bonus > 0) {
+            if (engine.getPowerUps(engine.getCurrentPlayer()) == 0) {
+                throw new IllegalStateException("Recorded power-up used by a seat that has none");
+            }
+            engine.usePowerUp(engine.getCurrentPlayer(), bonus);
+        }
+        engine.move(roll + bonus);
+        engine.endTurn();
+        while (!engine.isGameOver() && engine.consumeSkip()) {
+            engine.endTurn();
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(board.getName());
+            out.writeShort(start.size());
+            out.write(start.toBytes());
+
+            out.writeInt(turnCount);
+            int words = (int) (((long) turnCount * BITS_PER_TURN + 63) >>> 6);
+            for (int i = 0; i < words; i++) {
+                out.writeLong(packedTurns[i]);
+            }
+            int checkpointCount = Math.min(validCheckpoints(), checkpoints.size());
+            out.writeInt(checkpointCount);
+            for (int i = 0; i < checkpointCount; i++) {
+                out.write(checkpoints.get(i).toBytes());
+            }
+        }
+    }
+
+    // Reads a replay recorded on the given board; a replay from another layout is rejected
+    public static ReplayLog read(Path file, Board board) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IOException(file + " is not a replay file");
+            }
+            String boardName = in.readUTF();
+            byte[] record = new byte[in.readUnsignedShort()];
+            in.readFully(record);
+            GameState start = GameState.fromBytes(record);
+            if (start.getFingerprint() != board.fingerprint()) {
+                throw new IOException(file + " was recorded on " + boardName + ", not on " + board.getName());
+            }
+            ReplayLog log = new ReplayLog(board, start);
+
+            log.turnCount = in.readInt();
+            log.recordedCount = log.turnCount;
+            int words = (int) (((long) log.turnCount * BITS_PER_TURN + 63) >>> 6);
+            log.packedTurns = new long[words + 1];
+            for (int i = 0; i < words; i++) {
+                log.packedTurns[i] = in.readLong();
+            }
+            int checkpointCount = in.readInt();
+            for (int i = 0; i < checkpointCount; i++) {
+                in.readFully(record);
+                log.checkpoints.add(GameState.fromBytes(record));
+            }
+            // Further turns can be appended to a replay that was read back
+            log.shadow = log.seek(log.turnCount);
+            return log;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayLog replay-file [turn] [board-file]");
+            System.exit(1);
+        }
+        Board board = args.length > 2 ? BoardLoader.load(Paths.get(args[2])) : BoardLoader.loadClassic();
+        ReplayLog log = read(Paths.get(args[0]), board);
+        int turn = args.length > 1 ? Integer.parseInt(args[1]) : log.getTurnCount();
+
+        long start = System.nanoTime();
+        GameEngine engine = log.seek(turn);
+        long micros = (System.nanoTime() - start) / 1000;
+
+        System.out.println(board.getName() + ", " + log.getTurnCount() + " turns recorded, before turn " + turn
+                + " (seek took " + micros + " us):");
+        for (int seat = 0; seat < engine.getPlayerCount(); seat++) {
+            System.out.println("  Seat " + (seat + 1) + (engine.isAI(seat) ? " (AI)" : "") + ": tile " + engine.getPosition(seat)
+                    + ", power-ups " + engine.getPowerUps(seat)
+                    + (engine.isFinished(seat) ? ", finished " + engine.getRank(seat) : "")
+                    + (seat == engine.getCurrentPlayer() && !engine.isGameOver() ? "  <- to move" : ""));
+        }
+        if (turn < log.getTurnCount()) {
+            System.out.println("Next: roll " + log.getRoll(turn)
+                    + (log.getBonus(turn) > 0 ? " +" + log.getBonus(turn) + " power-up" : ""));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Plays AI-only games headlessly on every core and reports how the ruleset
+// behaves: wins and average rank per seat, how long games run, and how often
+// each kind of tile is hit. Games run on the same GameEngine and PowerUpAI as
+// the window, so a rule change shows up here before players ever see it.
+//
+// Game n always rolls Dice.forGame(--seed, n), so a run gives the same totals
+// whatever the thread count. --ai-think=SECONDS plays every seat with
+// ExpectimaxAI at that budget per decision instead of the precomputed policy;
+// how deep it searches depends on the machine, so such totals may not repeat.
+public class Simulator {
+    private static final int MAX_LENGTH = 2000; // longer games share the last histogram slot
+    private static final int HISTOGRAM_ROWS = 20;
+    private static final int BAR_WIDTH = 50;
+    private static final int CHUNKS_PER_THREAD = 16;
+
+    // Totals gathered by one worker; merged once every worker is done
+    static final class Tally {
+        final long[] wins;
+        final long[] rankSum;
+        final long[] lengths = new long[MAX_LENGTH + 1];
+        long games, turns, moves;
+        long snakes, ladders, traps, teleports, overshoots, powerUpsCollected, powerUpsUsed;
+
+        Tally(int seats) {
+            wins = new long[seats];
+            rankSum = new long[seats];
+        }
+
+        void add(Tally other) {
+            for (int seat = 0; seat < wins.length; seat++) {
+                wins[seat] += other.wins[seat];
+                rankSum[seat] += other.rankSum[seat];
+            }
+            for (int length = 0; length <= MAX_LENGTH; length++) {
+                lengths[length] += other.lengths[length];
+            }
+            games += other.games;
+            turns += other.turns;
+            moves += other.moves;
+            snakes += other.snakes;
+            ladders += other.ladders;
+            traps += other.traps;
+            teleports += other.teleports;
+            overshoots += other.overshoots;
+            powerUpsCollected += other.powerUpsCollected;
+            powerUpsUsed += other.powerUpsUsed;
+        }
+
+        // Smallest game length that at least the given fraction of games did not exceed
+        int percentile(double fraction) {
+            long needed = (long) Math.ceil(games * fraction);
+            long seen = 0;
+            for (int length = 0; length <= MAX_LENGTH; length++) {
+                seen += lengths[length];
+                if (seen >= needed && seen > 0) {
+                    return length;
+                }
+            }
+            return MAX_LENGTH;
+        }
+    }
+
+    // Usage: Simulator [--games=N] [--seats=N] [--seed=N] [--threads=N] [--ai-think=SECONDS] [board-file]
+    public static void main(String[] args) {
+        long games = 1_000_000;
+        int seats = 3;
+        long seed = new Random().nextLong();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int aiThinkMillis = 0;
+        String boardFile = null;
+        Board board;
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--games=")) {
+                    games = Long.parseLong(arg.substring("--games=".length()));
+                } else if (arg.startsWith("--seats=")) {
+                    seats = Integer.parseInt(arg.substring("--seats=".length()));
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(arg.substring("--seed=".length()));
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } else if (arg.startsWith("--ai-think=")) {
+                    aiThinkMillis = (int) (Double.parseDouble(arg.substring("--ai-think=".length())) * 1000);
+                } else {
+                    boardFile = arg;
+                }
+            }
+            if (seats < GameEngine.MIN_PLAYERS || seats > GameEngine.MAX_PLAYERS) {
+                throw new IllegalArgumentException("--seats must be " + GameEngine.MIN_PLAYERS + " to " + GameEngine.MAX_PLAYERS);
+            }
+            if (games < 1 || threads < 1) {
+                throw new IllegalArgumentException("--games and --threads must be positive");
+            }
+            if (aiThinkMillis < 0) {
+                throw new IllegalArgumentException("--ai-think must not be negative");
+            }
+            board = boardFile != null ? BoardLoader.load(Paths.get(boardFile)) : BoardLoader.loadClassic();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not start the simulation: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        System.out.println("Simulating " + games + " games of " + seats + " AI seats on " + threads + " threads, seed " + seed
+                + (aiThinkMillis > 0 ? ", searching " + aiThinkMillis + " ms per power-up decision" : ""));
+        long started = System.nanoTime();
+        Tally tally = run(board, seats, games, seed, threads, aiThinkMillis);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        report(tally, seconds);
+    }
+
+    public static Tally run(Board board, int seats, long games, long seed, int threads) {
+        return run(board, seats, games, seed, threads, 0);
+    }
+
+    // With aiThinkMillis above 0 every seat searches with ExpectimaxAI for that long per decision
+    public static Tally run(Board board, int seats, long games, long seed, int threads, int aiThinkMillis) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Many small chunks keep every core busy to the end even though game lengths vary
+            long chunk = Math.max(1, games / ((long) threads * CHUNKS_PER_THREAD));
+            // The AI only reads its precomputed tables and keeps each search to itself,
+            // so every worker can share one
+            PowerUpAI ai = aiThinkMillis > 0 ? new ExpectimaxAI(board, false, aiThinkMillis) : new PowerUpAI(board, false);
+            List<Future<Tally>> parts = new ArrayList<>();
+            for (long first = 0; first < games; first += chunk) {
+                long from = first, to = Math.min(games, first + chunk);
+                parts.add(pool.submit(() -> play(board, ai, seats, from, to, seed)));
+            }
+            Tally total = new Tally(seats);
+            for (Future<Tally> part : parts) {
+                total.add(part.get());
+            }
+            return total;
+        } catch (Exception e) {
+            throw new IllegalStateException("Simulation failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Plays games [from, to) on one engine, reusing it and its move result throughout
+    static Tally play(Board board, PowerUpAI ai, int seats, long from, long to, long seed) {
+        Tally tally = new Tally(seats);
+        boolean[] aiSeats = new boolean[seats];
+        Arrays.fill(aiSeats, true);
+        GameEngine engine = new GameEngine(board, aiSeats, seed);
+        GameEngine.MoveResult result = new GameEngine.MoveResult();
+
+        for (long game = from; game < to; game++) {
+            engine.reset();
+            engine.reseed(Dice.gameSeed(seed, game));
+
+            int turns = 0;
+            while (!engine.isGameOver()) {
+                turns++;
+                if (engine.consumeSkip()) {
+                    engine.endTurn();
+                    continue;
+                }
+                int seat = engine.getCurrentPlayer();
+                int roll = engine.rollDice();
+                int bonus = 0;
+                if (engine.getPowerUps(seat) > 0) {
+                    bonus = ai.decide(engine.captureState(), roll).bonus;
+                    if (bonus > 0) {
+                        engine.usePowerUp(seat, bonus);
+                        tally.powerUpsUsed++;
+                    }
+                }
+                engine.move(roll + bonus, result);
+                tally.moves++;
+                if (result.overshoot) tally.overshoots++;
+                if (result.bitten()) tally.snakes++;
+                if (result.climbed()) tally.ladders++;
+                if (result.teleported()) tally.teleports++;
+                if (result.trapped) tally.traps++;
+                if (result.powerUpCollected) tally.powerUpsCollected++;
+                engine.endTurn();
+            }
+
+            tally.games++;
+            tally.turns += turns;
+            tally.lengths[Math.min(turns, MAX_LENGTH)]++;
+            tally.wins[engine.getSeatWithRank(1)]++;
+            for (int seat = 0; seat < seats; seat++) {
+                tally.rankSum[seat] += engine.getRank(seat);
+            }
+        }
+        return tally;
+    }
+
+    private static void report(Tally tally, double seconds) {
+        System.out.printf("%d games, %d turns in %.2f s: %.1f million turns/s%n",
+                tally.games, tally.turns, seconds, tally.turns / seconds / 1e6);
+
+        System.out.println();
+        System.out.println("Seat   Wins      Win rate  Average rank");
+        for (int seat = 0; seat < tally.wins.length; seat++) {
+            System.out.printf("%-6d %-9d %7.3f%%  %.3f%n", seat + 1, tally.wins[seat],
+                    100.0 * tally.wins[seat] / tally.games, (double) tally.rankSum[seat] / tally.games);
+        }
+
+        System.out.println();
+        System.out.printf("Game length in turns (until every seat finished): mean %.1f, p10 %d, median %d, p90 %d, p99 %d%n",
+                (double) tally.turns / tally.games, tally.percentile(0.10), tally.percentile(0.50),
+                tally.percentile(0.90), tally.percentile(0.99));
+        printHistogram(tally);
+
+        System.out.println();
+        System.out.println("Per move (" + tally.moves + " moves):");
+        printRate("Snake bites", tally.snakes, tally);
+        printRate("Ladders climbed", tally.ladders, tally);
+        printRate("Teleports", tally.teleports, tally);
+        printRate("Traps", tally.traps, tally);
+        printRate("Overshoots", tally.overshoots, tally);
+        printRate("Power-ups collected", tally.powerUpsCollected, tally);
+        printRate("Power-ups used", tally.powerUpsUsed, tally);
+    }
+
+    private static void printRate(String name, long count, Tally tally) {
+        System.out.printf("  %-20s %12d  %6.3f%% of moves, %.2f per game%n", name, count,
+                100.0 * count / tally.moves, (double) count / tally.games);
+    }
+
+    // Buckets run from the shortest game to the 99th percentile; anything longer is the last row
+    private static void printHistogram(Tally tally) {
+        int low = tally.percentile(0);
+        int high = tally.percentile(0.99);
+        int width = Math.max(1, (high - low + HISTOGRAM_ROWS) / HISTOGRAM_ROWS);
+        long[] rows = new long[HISTOGRAM_ROWS + 1];
+        for (int length = low; length <= MAX_LENGTH; length++) {
+            rows[Math.min((length - low) / width, HISTOGRAM_ROWS)] += tally.lengths[length];
+        }
+        long largest = 1;
+        for (long count : rows) {
+            largest = Math.max(largest, count);
+        }
+        for (int row = 0; row <= HISTOGRAM_ROWS; row++) {
+            if (rows[row] == 0) {
+                continue;
+            }
+            String range = row == HISTOGRAM_ROWS ? (low + row * width) + "+"
+                    : (low + row * width) + "-" + (low + (row + 1) * width - 1);
+            int bar = (int) Math.round((double) BAR_WIDTH * rows[row] / largest);
+            System.out.printf("  %9s %6.2f%% %s%n", range, 100.0 * rows[row] / tally.games, "█".repeat(bar));
+        }
+    }
+}
@@ -1,1140 +1,881 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.awt.image.BufferedImage;
-import java.awt.RenderingHints;
-import java.awt.BasicStroke;
 
 public class SnakeAndLadderAI extends JFrame {
-    private static final int BOARD_SIZE = 10;
-    private Map<Integer, Integer> snakes;
-    private Map<Integer, Integer> ladders;
-    private Map<Integer, Boolean> traps;
-    private Map<Integer, Integer> teleports;
-    private Map<Integer, Boolean> powerUpTiles;
+    private static final Color[] PLAYER_COLORS = {Color.BLUE, Color.GREEN, Color.ORANGE};
+    private static final int AI_DELAY = 1500;
+    private static final int DICE_FACES = 10; // random faces shown before the real roll
+    private static final int DICE_FACE_MILLIS = 100;
+    private static final int ROLL_PAUSE_MILLIS = 1000; // pause on the rolled value before moving
+    private static final int ROUND_PAUSE_MILLIS = 3000; // final rankings stay up before the next round
+    private static final int FEED_CAPACITY = 500;
+    private static final String LAST_REPLAY = "last-game.replay";
+    private static final String AUTOSAVE_DIRECTORY = "autosave";
+    private static final int EVENT_QUEUE = 1024;
+    private static final int FRAME_MILLIS = 16; // about 60 frames per second
+    private static final int STEP_MILLIS = 250; // time for a token to slide one tile
+    private static final int SPRITE_SIZE = 50;
+    private static final String SPRITE_CACHE = ".sprite-cache";
+    private static final String[] MEDALS = {"🥇 1st Place: ", "🥈 2nd Place: ", "🥉 3rd Place: "};
+    private final GameEngine engine;
+    private final AiWorker aiWorker; // AI decisions run here, off the EDT
+    private final String[] playerNames;
+    private final String[] turnText;
+    private final Color[] playerColors;
     private JButton rollDiceButton;
-    private JLabel playerLabel, player2Label, aiLabel, diceResultLabel, turnLabel;
-    private int playerPosition = 1, player2Position = 1, aiPosition = 1;
+    private JLabel diceResultLabel, turnLabel;
+    private JLabel[] positionLabels, powerUpLabels;
+    // Positions currently drawn on the board; they trail the engine while a move animates
+    private final int[] displayPositions;
     private Random random;
-    private boolean playerTurn = true;
-    private boolean player2Turn = false;
-    private boolean aiTurn = false;
-    private ImageIcon[] snakeImages, ladderImages;
-    private boolean skipTurnPlayer = false;
-    private boolean skipTurnPlayer2 = false;
-    private boolean skipTurnAI = false; 
-    private ImageIcon trapImage, teleportImage;
-    private JPanel boardPanel;
-    private int player1PowerUps = 0;
-    private int player2PowerUps = 0;
-    private int aiPowerUps = 0;
-    private JLabel player1PowerUpLabel, player2PowerUpLabel, aiPowerUpLabel;
-    private ImageIcon powerUpImage;
-    private boolean player1Finished = false;
-    private boolean player2Finished = false;
-    private boolean aiFinished = false;
-    private int player1Rank = 0;
-    private int player2Rank = 0;
-    private int aiRank = 0;
-    private int currentRank = 1;
-   
+    private final TurnMachine turns = new TurnMachine();
+    private final int turnTimeoutMillis;
+    private Pacing pacing;
+    private int pendingRoll, pendingBonus;
+    private volatile ReplayLog replay; // fed by its event subscription
+    private int recordedTurns; // turns the replay has been sent so far
+    private History history;
+    private JButton undoButton, redoButton;
+    private GameEngine.MoveResult lastMove;
+    private BoardComponent boardView;
+    private EventFeed eventFeed;
+    private final Journal journal; // null when autosave could not be opened
+    private final EventStats stats = new EventStats();
+    private EventBus.Subscription replayEvents, statsEvents;
+    private final TurnDistribution distributions;
+    private JDialog oddsDialog; // created the first time the odds are shown
+    private DistributionChart oddsChart;
+
+    // Usage: SnakeAndLadderAI [--seats=HHA] [--turn-timeout=SECONDS] [--pacing=normal|fast|instant]
+    //                         [--seed=N] [--ai-think=SECONDS] [--autosave-sync=MILLIS] [--log-events] [board-file]
+    // Each letter of --seats is one seat in turn order, H for a human and A for the AI.
+    // With a turn timeout, a human seat that does not roll in time rolls automatically.
+    // Pacing can also be changed while playing; --seats=AAA with --pacing=instant plays
+    // AI-only rounds back to back as fast as the board can be redrawn.
+    // The same --seed and the same choices replay the same games; each finished
+    // round is saved to last-game.replay (see ReplayLog).
+    // --ai-think is how long the AI may search before spending a power-up (default 0.3 s,
+    // see ExpectimaxAI). How deep it gets depends on the machine, so AI seats repeat
+    // their choices for a seed only with --ai-think=0, which plays the precomputed policy.
+    // Every turn is autosaved to a journal that is flushed to disk at most once per
+    // --autosave-sync interval (default 1000 ms); after a crash the game picks up
+    // where it stopped. --log-events prints every game event to standard output.
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new SnakeAndLadderAI());
+        String boardFile = null;
+        String seats = "HHA";
+        int turnTimeoutMillis = 0;
+        int aiThinkMillis = 300;
+        Pacing pacing = Pacing.NORMAL;
+        long seed = new Random().nextLong();
+        int autosaveSyncMillis = 1000;
+        boolean logEvents = false;
+        Board board;
+        boolean[] aiSeats;
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--seats=")) {
+                    seats = arg.substring("--seats=".length()).toUpperCase();
+                } else if (arg.startsWith("--turn-timeout=")) {
+                    turnTimeoutMillis = (int) (Double.parseDouble(arg.substring("--turn-timeout=".length())) * 1000);
+                } else if (arg.startsWith("--ai-think=")) {
+                    aiThinkMillis = (int) (Double.parseDouble(arg.substring("--ai-think=".length())) * 1000);
+                } else if (arg.startsWith("--pacing=")) {
+                    pacing = Pacing.parse(arg.substring("--pacing=".length()));
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(arg.substring("--seed=".length()));
+                } else if (arg.startsWith("--autosave-sync=")) {
+                    autosaveSyncMillis = Integer.parseInt(arg.substring("--autosave-sync=".length()));
+                } else if (arg.equals("--log-events")) {
+                    logEvents = true;
+                } else {
+                    boardFile = arg;
+                }
+            }
+
+            aiSeats = new boolean[seats.length()];
+            for (int seat = 0; seat < aiSeats.length; seat++) {
+                char type = seats.charAt(seat);
+                if (type != 'H' && type != 'A') {
+                    throw new IllegalArgumentException("--seats may only contain H (human) and A (AI)");
+                }
+                aiSeats[seat] = type == 'A';
+            }
+            if (aiSeats.length < GameEngine.MIN_PLAYERS || aiSeats.length > GameEngine.MAX_PLAYERS) {
+                throw new IllegalArgumentException("--seats needs " + GameEngine.MIN_PLAYERS + " to " + GameEngine.MAX_PLAYERS + " players");
+            }
+            // An optional argument names a board definition file to play on
+            board = boardFile != null ? BoardLoader.load(Paths.get(boardFile)) : BoardLoader.loadClassic();
+        } catch (IOException | IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(null, "Could not start game: " + e.getMessage(),
+                    "Snake and Ladder", JOptionPane.ERROR_MESSAGE);
+            System.exit(1);
+            return;
+        }
+        Journal journal = openJournal(autosaveSyncMillis);
+        EventBus events = new EventBus();
+        if (logEvents) {
+            // A log that falls behind loses its oldest lines rather than slowing the game
+            events.subscribe("log", EVENT_QUEUE, EventBus.Overflow.DROP_OLDEST, event -> System.out.println("[event] " + event));
+        }
+
+        int timeout = turnTimeoutMillis;
+        int think = aiThinkMillis;
+        Pacing startPacing = pacing;
+        long gameSeed = seed;
+        SwingUtilities.invokeLater(() -> new SnakeAndLadderAI(board, aiSeats, timeout, think, startPacing, gameSeed,
+                journal, events));
     }
 
-    public SnakeAndLadderAI() {
-        setTitle("Snake and Ladder Game with 2 Players and AI 🤖");
-        setSize(600, 700);
+    // The journal is flushed one last time when the JVM exits normally
+    private static Journal openJournal(int syncIntervalMillis) {
+        try {
+            Journal journal = new Journal(Paths.get(AUTOSAVE_DIRECTORY), syncIntervalMillis);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("Could not close the autosave: " + e.getMessage());
+                }
+            }));
+            return journal;
+        } catch (IOException e) {
+            System.err.println("Autosave is off: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public SnakeAndLadderAI(Board board, boolean[] aiSeats, int turnTimeoutMillis, int aiThinkMillis, Pacing pacing,
+                            long seed, Journal journal, EventBus events) {
+        engine = new GameEngine(board, aiSeats, seed);
+        engine.setEventBus(events);
+        aiWorker = new AiWorker(new ExpectimaxAI(board, true, aiThinkMillis));
+        distributions = new TurnDistribution(board);
+        this.journal = journal;
+        this.turnTimeoutMillis = turnTimeoutMillis;
+        this.pacing = pacing;
+        int playerCount = engine.getPlayerCount();
+        displayPositions = new int[playerCount];
+        playerNames = new String[playerCount];
+        turnText = new String[playerCount];
+        playerColors = new Color[playerCount];
+        nameSeats(aiSeats);
+
+        setTitle("Snake and Ladder Game with " + playerCount + " Players 🤖");
+        setSize(840, 700);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
-    
-        initializeSnakesAndLadders();
-        loadImages();
+
+        syncDisplayPositions();
         random = new Random();
-    
-        boardPanel = createBoard();
-        add(boardPanel, BorderLayout.CENTER);
+
+        turns.on(TurnMachine.Phase.AWAITING_ROLL, this::awaitRoll);
+        turns.on(TurnMachine.Phase.ROLLING, this::rollDice);
+        turns.on(TurnMachine.Phase.DECIDING_POWER_UP, this::offerPowerUp);
+        turns.on(TurnMachine.Phase.MOVING, this::moveToken);
+        turns.on(TurnMachine.Phase.RESOLVING, this::resolveTurn);
+        turns.on(TurnMachine.Phase.FINISHED, this::finishRound);
+
+        boardView = new BoardComponent(engine, playerColors);
+        loadSprites();
+        eventFeed = new EventFeed(FEED_CAPACITY);
+        add(createToolBar(), BorderLayout.NORTH);
+        add(boardView, BorderLayout.CENTER);
+        add(eventFeed, BorderLayout.EAST);
         add(createControls(), BorderLayout.SOUTH);
-    
+        subscribe(events);
+
         setVisible(true);
+
+        showMessage("🎲 Seed " + seed + " (--seed=" + seed + " replays these games)");
+
+        // Pick up an autosaved game left by a crash, if it fits this board and seating
+        GameState recovered = journal != null ? journal.getRecovered() : null;
+        if (recovered != null) {
+            try {
+                engine.restoreState(recovered);
+                showMessage("♻️ Resumed the autosaved game");
+            } catch (IllegalArgumentException e) {
+                showMessage("Autosaved game not resumed: " + e.getMessage());
+            }
+        }
+
+        // The first seat may be an AI, so let the turn logic decide who acts first
+        resumePlay();
     }
 
-    private void initializeSnakesAndLadders() {
-        snakes = new HashMap<>();
-        ladders = new HashMap<>();
-        traps = new HashMap<>();
-        teleports = new HashMap<>();
-        powerUpTiles = new HashMap<>();
-    
-        // Define snakes (moves player backward)
-        snakes.put(17, 7);
-        snakes.put(38, 19);
-        snakes.put(53, 33);
-        snakes.put(85, 43);
-        snakes.put(99, 77);
-    
-        // Define ladders (moves player forward)
-        ladders.put(4, 25);
-        ladders.put(13, 34);
-        ladders.put(22, 41);
-        ladders.put(57, 76);
-        ladders.put(72, 91);
-    
-        // Define trap positions (player will skip next turn)
-        traps.put(29, true);
-        traps.put(82, true);
-    
-        // Define teleport positions (player will jump forward)
-        teleports.put(11, 21);
-        teleports.put(44, 49);
-    
-        // Initialize power-up tiles - UPDATED to position 26 (not 16)
-        powerUpTiles.put(26, true);  // Changed from 16 to 26
-        powerUpTiles.put(42, true);
-        powerUpTiles.put(78, true);
-        
-        // Debug output to verify initialization
-        System.out.println("Ladders initialized at: 4→25, 13→34, 22→41, 57→76, 72→91");
-        System.out.println("Power-ups initialized at: 26, 42, 78");
+    // Every subscriber that keeps state sees every event; only the optional log may drop
+    // some. The view hands each event to the EDT with invokeLater rather than waiting
+    // for it, since the engine publishes from the EDT and would otherwise wait on a full
+    // queue that only the EDT can empty.
+    private void subscribe(EventBus events) {
+        events.subscribe("view", EVENT_QUEUE, EventBus.Overflow.BLOCK, event -> SwingUtilities.invokeLater(() -> present(event)));
+        replayEvents = events.subscribe("replay", EVENT_QUEUE, EventBus.Overflow.BLOCK, event -> replay.accept(event));
+        statsEvents = events.subscribe("stats", EVENT_QUEUE, EventBus.Overflow.BLOCK, stats);
     }
 
-    private void loadImages() {
-        snakeImages = new ImageIcon[4];
-        ladderImages = new ImageIcon[4];
-    
-        try {
-        for (int i = 0; i < 4; i++) {
-            snakeImages[i] = new ImageIcon("snake" + (i + 1) + ".png");
-            ladderImages[i] = new ImageIcon("ladder" + (i + 1) + ".png");
-    
-            Image scaledSnake = snakeImages[i].getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
-            Image scaledLadder = ladderImages[i].getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
-    
-            snakeImages[i] = new ImageIcon(scaledSnake);
-            ladderImages[i] = new ImageIcon(scaledLadder);
-        }
-    
-        // Load trap and teleport images outside the loop
-        trapImage = new ImageIcon("trap.png");
-        teleportImage = new ImageIcon("teleport.png");
-    
-        Image scaledTrap = trapImage.getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
-        Image scaledTeleport = teleportImage.getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
-    
-        trapImage = new ImageIcon(scaledTrap);
-        teleportImage = new ImageIcon(scaledTeleport);
-        
-            // Load power-up image
-            powerUpImage = new ImageIcon("powerup.png");
-            Image scaledPowerUp = powerUpImage.getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
-            powerUpImage = new ImageIcon(scaledPowerUp);
-        } catch (Exception e) {
-            System.err.println("Error loading images: " + e.getMessage());
-        }
+    // Shows drawn placeholders straight away and swaps in the real sprites once the
+    // background threads have decoded (or pulled from the cache) every one of them
+    private void loadSprites() {
+        SpriteLoader loader = new SpriteLoader(Paths.get(SPRITE_CACHE));
+        Image[] placeholders = new Image[SpriteAtlas.FILES.length];
+        List<CompletableFuture<BufferedImage>> loads = new ArrayList<>();
+        for (int i = 0; i < SpriteAtlas.FILES.length; i++) {
+            placeholders[i] = SpriteLoader.placeholder(SpriteAtlas.FILES[i], SPRITE_SIZE);
+            loads.add(loader.load(Paths.get(SpriteAtlas.FILES[i]), SPRITE_SIZE));
+        }
+        boardView.setSprites(new SpriteAtlas(placeholders, SPRITE_SIZE));
+
+        CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            Image[] sprites = new Image[loads.size()];
+            for (int i = 0; i < sprites.length; i++) {
+                sprites[i] = loads.get(i).join();
+            }
+            SpriteAtlas atlas = new SpriteAtlas(sprites, SPRITE_SIZE);
+            SwingUtilities.invokeLater(() -> boardView.setSprites(atlas));
+        });
     }
 
-    private JPanel createBoard() {
-        JPanel boardPanel = new JPanel(new GridLayout(BOARD_SIZE, BOARD_SIZE));
-        int number = 100;
-        boolean reverse = true;
-    
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                int cellNumber = reverse ? number - col : number - (BOARD_SIZE - 1 - col);
-                JLabel cell = new JLabel(String.valueOf(cellNumber), SwingConstants.CENTER);
-                cell.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-                cell.setOpaque(true);
-                cell.setHorizontalTextPosition(SwingConstants.CENTER);
-                cell.setVerticalTextPosition(SwingConstants.TOP);
-    
-                // Assigning icons for ladders, snakes, traps, teleports, and power-ups
-                if (ladders.containsKey(cellNumber)) {
-                    cell.setIcon(ladderImages[cellNumber % 4]);
-                } else if (snakes.containsKey(cellNumber)) {
-                    cell.setIcon(snakeImages[cellNumber % 4]);
-                } else if (traps.containsKey(cellNumber)) {
-                    cell.setIcon(trapImage);
-                } else if (teleports.containsKey(cellNumber)) {
-                    cell.setIcon(teleportImage);
-                } else if (powerUpTiles.containsKey(cellNumber) && powerUpTiles.get(cellNumber)) {
-                    cell.setIcon(powerUpImage);
-                    cell.setBackground(new Color(255, 223, 0, 100)); // Light gold background
-                }
-    
-                // Highlight player positions with different colors for finished players
-                if (cellNumber == playerPosition) {
-                    if (player1Finished) {
-                        // Use a trophy color for finished players
-                        cell.setBackground(new Color(255, 215, 0)); // Gold color
-                        cell.setText("P1 🏆" + player1Rank);
-                    } else {
-                    cell.setBackground(Color.BLUE);
-                    }
-                } else if (cellNumber == player2Position) {
-                    if (player2Finished) {
-                        cell.setBackground(new Color(255, 215, 0)); // Gold color
-                        cell.setText("P2 🏆" + player2Rank);
-                    } else {
-                        cell.setBackground(Color.GREEN);
-                    }
-                } else if (cellNumber == aiPosition) {
-                    if (aiFinished) {
-                        cell.setBackground(new Color(255, 215, 0)); // Gold color
-                        cell.setText("AI 🏆" + aiRank);
-                    } else {
-                    cell.setBackground(Color.ORANGE);
-                    }
-                } else if (!powerUpTiles.containsKey(cellNumber) || !powerUpTiles.get(cellNumber)) {
-                    cell.setBackground(Color.WHITE);
-                }
-    
-                boardPanel.add(cell);
+    // Humans are numbered Player 1, Player 2, ...; a lone AI is just "AI"
+    private void nameSeats(boolean[] aiSeats) {
+        int aiCount = 0;
+        for (boolean isAI : aiSeats) {
+            if (isAI) aiCount++;
+        }
+        int humanNumber = 0;
+        int aiNumber = 0;
+        for (int seat = 0; seat < aiSeats.length; seat++) {
+            if (aiSeats[seat]) {
+                aiNumber++;
+                playerNames[seat] = aiCount == 1 ? "AI" : "AI " + aiNumber;
+                turnText[seat] = playerNames[seat] + "'s Turn 🤖";
+            } else {
+                humanNumber++;
+                playerNames[seat] = "Player " + humanNumber;
+                turnText[seat] = playerNames[seat] + "'s Turn " + (humanNumber == 1 ? "🧑" : "👤");
             }
-            number -= 10;
-            reverse = !reverse;
+            playerColors[seat] = seat < PLAYER_COLORS.length
+                    ? PLAYER_COLORS[seat]
+                    : Color.getHSBColor((seat * 0.618034f) % 1f, 0.55f, 0.95f);
         }
-        return boardPanel;
     }
 
-    // Method to update the board display
+    private void syncDisplayPositions() {
+        for (int seat = 0; seat < engine.getPlayerCount(); seat++) {
+            displayPositions[seat] = engine.getPosition(seat);
+        }
+    }
+
+    // Redraws the static layer and puts every token back, for when the whole game state changes at once
     private void updateBoard() {
-        remove(boardPanel);
-        boardPanel = createBoard();
-        add(boardPanel, BorderLayout.CENTER);
-        revalidate();
-        repaint();
+        boardView.syncTokens();
+        boardView.invalidateBackground();
+    }
+
+    // Save and load buttons, and the pacing, which can be switched at any time
+    // and applies from the next delay on
+    private JPanel createToolBar() {
+        JButton saveButton = new JButton("💾 Save");
+        saveButton.addActionListener(e -> saveGame());
+        JButton loadButton = new JButton("📂 Load");
+        loadButton.addActionListener(e -> loadGame());
+        undoButton = new JButton("↶ Undo");
+        undoButton.addActionListener(e -> undo());
+        redoButton = new JButton("↷ Redo");
+        redoButton.addActionListener(e -> redo());
+        JButton oddsButton = new JButton("📈 Odds");
+        oddsButton.addActionListener(e -> showOdds());
+
+        JComboBox<Pacing> pacingBox = new JComboBox<>(Pacing.values());
+        pacingBox.setSelectedItem(pacing);
+        pacingBox.addActionListener(e -> pacing = (Pacing) pacingBox.getSelectedItem());
+
+        JPanel toolBar = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        toolBar.add(saveButton);
+        toolBar.add(loadButton);
+        toolBar.add(undoButton);
+        toolBar.add(redoButton);
+        toolBar.add(oddsButton);
+        toolBar.add(new JLabel("Pacing:"));
+        toolBar.add(pacingBox);
+        return toolBar;
+    }
+
+    // Games are saved between turns, so a loaded game always resumes with a fresh roll
+    private void saveGame() {
+        if (!turns.is(TurnMachine.Phase.AWAITING_ROLL)) {
+            showMessage("⏳ Games can be saved between turns; try again in a moment.");
+            return;
+        }
+        GameState state = engine.captureState();
+        JFileChooser chooser = new JFileChooser(".");
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            state.save(chooser.getSelectedFile().toPath());
+            showMessage("💾 Game saved to " + chooser.getSelectedFile().getName());
+        } catch (IOException e) {
+            showMessage("Could not save the game: " + e.getMessage());
+        }
+    }
+
+    private void loadGame() {
+        JFileChooser chooser = new JFileChooser(".");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            GameState state = GameState.load(chooser.getSelectedFile().toPath());
+            engine.restoreState(state);
+        } catch (IOException | IllegalArgumentException e) {
+            showMessage("Could not load the game: " + e.getMessage());
+            return;
+        }
+        turns.reset();
+        aiWorker.cancel();
+        resetStats();
+        showMessage("📂 Game loaded from " + chooser.getSelectedFile().getName());
+        resumePlay();
     }
 
     private JPanel createControls() {
-        JPanel controlPanel = new JPanel(new GridLayout(3, 3, 10, 10));
-    
+        JPanel controlPanel = new JPanel(new GridLayout(0, 3, 10, 10));
+
         rollDiceButton = new JButton("Roll Dice 🎲");
-    
-        // Create colored dots for players and AI
-        JPanel playerDot = new JPanel();
-        playerDot.setBackground(Color.BLUE);
-        playerDot.setPreferredSize(new Dimension(20, 20));
-        playerDot.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-    
-        JPanel player2Dot = new JPanel();
-        player2Dot.setBackground(Color.GREEN);
-        player2Dot.setPreferredSize(new Dimension(20, 20));
-        player2Dot.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-    
-        JPanel aiDot = new JPanel();
-        aiDot.setBackground(Color.ORANGE);
-        aiDot.setPreferredSize(new Dimension(20, 20));
-        aiDot.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-    
-        // Labels
-        playerLabel = new JLabel("Player 1: " + playerPosition);
-        player2Label = new JLabel("Player 2: " + player2Position);
-        aiLabel = new JLabel("AI: " + aiPosition);
-    
+
         diceResultLabel = new JLabel("Dice: 🎲 -", SwingConstants.CENTER);
         diceResultLabel.setFont(new Font("Arial", Font.BOLD, 14));
-    
-        turnLabel = new JLabel(playerTurn ? "Player 1's Turn 🧑" : (player2Turn ? "Player 2's Turn 👤" : "AI's Turn 🤖"), SwingConstants.CENTER);
+
+        turnLabel = new JLabel(turnText[engine.getCurrentPlayer()], SwingConstants.CENTER);
         turnLabel.setFont(new Font("Arial", Font.BOLD, 14));
-    
-        // Add power-up labels
-        player1PowerUpLabel = new JLabel("🎁 Power-ups: " + player1PowerUps);
-        player2PowerUpLabel = new JLabel("🎁 Power-ups: " + player2PowerUps);
-        aiPowerUpLabel = new JLabel("🎁 Power-ups: " + aiPowerUps);
-    
+
         rollDiceButton.addActionListener(e -> {
-            if (playerTurn) {
-                rollDice(1); // Player 1 rolls dice
-            } else if (player2Turn) {
-                rollDice(2); // Player 2 rolls dice
+            if (!engine.isAI(engine.getCurrentPlayer())) {
+                startRoll();
             }
         });
-    
-        // Player panels
-        JPanel playerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        playerPanel.add(playerDot);
-        playerPanel.add(playerLabel);
-        playerPanel.add(player1PowerUpLabel);
-
-        JPanel player2Panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        player2Panel.add(player2Dot);
-        player2Panel.add(player2Label);
-        player2Panel.add(player2PowerUpLabel);
-    
-        // AI panel
-        JPanel aiPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        aiPanel.add(aiDot);
-        aiPanel.add(aiLabel);
-        aiPanel.add(aiPowerUpLabel);
-    
-        // Add components to the control panel
+
         controlPanel.add(rollDiceButton);
         controlPanel.add(diceResultLabel);
         controlPanel.add(turnLabel);
-        controlPanel.add(playerPanel);
-        controlPanel.add(player2Panel);
-        controlPanel.add(aiPanel);
-    
+
+        // One panel per seat with a colored dot, position label and power-up label
+        positionLabels = new JLabel[engine.getPlayerCount()];
+        powerUpLabels = new JLabel[engine.getPlayerCount()];
+        for (int seat = 0; seat < engine.getPlayerCount(); seat++) {
+            JPanel dot = new JPanel();
+            dot.setBackground(playerColors[seat]);
+            dot.setPreferredSize(new Dimension(20, 20));
+            dot.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+
+            positionLabels[seat] = new JLabel(playerNames[seat] + ": " + displayPositions[seat]);
+            powerUpLabels[seat] = new JLabel("🎁 Power-ups: " + engine.getPowerUps(seat));
+
+            JPanel seatPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            seatPanel.add(dot);
+            seatPanel.add(positionLabels[seat]);
+            seatPanel.add(powerUpLabels[seat]);
+            controlPanel.add(seatPanel);
+        }
+
         return controlPanel;
     }
-    
-    private void rollDice(int playerNumber) {
+
+    // AWAITING_ROLL: hands control to whoever the engine says is next
+    private void awaitRoll() {
+        int seat = engine.getCurrentPlayer();
+        turnLabel.setText(turnText[seat]);
+        if (engine.isAI(seat)) {
+            rollDiceButton.setEnabled(false);
+            turns.schedule(pacing.delay(AI_DELAY), this::startRoll);
+        } else {
+            rollDiceButton.setEnabled(true);
+            if (turnTimeoutMillis > 0) {
+                // An idle human seat rolls automatically once its time is up
+                turns.schedule(turnTimeoutMillis, () -> {
+                    diceResultLabel.setText("⏰ " + playerNames[seat] + " timed out, rolling automatically");
+                    startRoll();
+                });
+            }
+        }
+    }
+
+    private void startRoll() {
+        if (!turns.is(TurnMachine.Phase.AWAITING_ROLL)) {
+            return;
+        }
         // Disable dice roll button while rolling
         rollDiceButton.setEnabled(false);
-    
+        int seat = engine.getCurrentPlayer();
+
         // Handle skipping turn logic first
-        if (handleSkipTurn(playerNumber)) {
+        if (engine.consumeSkip()) {
+            lastMove = null;
+            turns.enter(TurnMachine.Phase.RESOLVING);
             return;
         }
-    
-        // Simulate dice rolling animation
-        Timer diceAnimationTimer = new Timer(100, new ActionListener() {
-            int rollCount = 0;
-            Random tempRandom = new Random();
-    
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (rollCount < 10) { // Show 10 random numbers before stopping
-                    int tempRoll = tempRandom.nextInt(6) + 1;
-                    String playerName = playerNumber == 1 ? "Player 1" : (playerNumber == 2 ? "Player 2" : "AI");
-                    diceResultLabel.setText(playerName + " rolling... 🎲 " + tempRoll);
-                    rollCount++;
-                } else {
-                    ((Timer) e.getSource()).stop(); // Stop animation
-    
-                    // Generate actual dice roll
-                    int diceRoll = random.nextInt(6) + 1;
-                    String playerName = playerNumber == 1 ? "Player 1" : (playerNumber == 2 ? "Player 2" : "AI");
-                    diceResultLabel.setText(playerName + " rolled: 🎲 " + diceRoll);
-    
-                    // Introduce a delay before offering power-up
-                    Timer delayTimer = new Timer(1000, event -> {
-                        offerPowerUp(playerNumber, diceRoll);
-                    });
-                    delayTimer.setRepeats(false);
-                    delayTimer.start();
-                }
-            }
-        });
-        diceAnimationTimer.start(); // Start dice rolling animation
+        turns.enter(TurnMachine.Phase.ROLLING);
     }
-    
-    private boolean handleSkipTurn(int playerNumber) {
-        if (playerNumber == 1 && skipTurnPlayer) {
-            skipTurnPlayer = false;
-            JOptionPane.showMessageDialog(this, "⏭️ Player 1 skips this turn!");
-            playerTurn = false;
-            player2Turn = true;
-            aiTurn = false;
-            turnLabel.setText("Player 2's Turn 👤");
-            rollDiceButton.setEnabled(true);
-            return true;
-        } 
-        if (playerNumber == 2 && skipTurnPlayer2) {
-            skipTurnPlayer2 = false;
-            JOptionPane.showMessageDialog(this, "⏭️ Player 2 skips this turn!");
-            playerTurn = false;
-            player2Turn = false;
-            aiTurn = true;
-            turnLabel.setText("AI's Turn 🤖");
-            
-            // Give AI a chance to play after a short delay
-            Timer aiTimer = new Timer(1000, evt -> rollDice(3));
-            aiTimer.setRepeats(false);
-            aiTimer.start();
-            return true;
-        } 
-        if (playerNumber == 3 && skipTurnAI) {
-            skipTurnAI = false;
-            JOptionPane.showMessageDialog(this, "🤖 AI skips this turn!");
-            playerTurn = true;
-            player2Turn = false;
-            aiTurn = false;
-            turnLabel.setText("Player 1's Turn 🧑");
-            rollDiceButton.setEnabled(true);
-            return true;
-        }
-        return false;
+
+    // ROLLING: shows 10 random faces before the real roll, none at instant pacing
+    private void rollDice() {
+        animateDice(0);
     }
-    
-    private void updateGameState(int playerNumber, int diceRoll) {
-        // Skip turn if player has already finished
-        if ((playerNumber == 1 && player1Finished) || 
-            (playerNumber == 2 && player2Finished) || 
-            (playerNumber == 3 && aiFinished)) {
-            
-            // Move to next player's turn
-            if (playerNumber == 1) {
-                playerTurn = false;
-                player2Turn = true;
-                aiTurn = false;
-                turnLabel.setText("Player 2's Turn 👤");
-                rollDiceButton.setEnabled(true);
-                
-                // If Player 2 has also finished, move to AI
-                if (player2Finished) {
-                    player2Turn = false;
-                    aiTurn = true;
-                    turnLabel.setText("AI's Turn 🤖");
-                    
-                    // If AI has also finished, move back to Player 1
-                    if (aiFinished) {
-                        aiTurn = false;
-                        playerTurn = true;
-                        turnLabel.setText("Player 1's Turn 🧑");
-                    } else {
-                        // AI's turn
-                        Timer aiTimer = new Timer(1500, evt -> rollDice(3));
-                        aiTimer.setRepeats(false);
-                        aiTimer.start();
-                    }
-                }
-            } else if (playerNumber == 2) {
-                playerTurn = false;
-                player2Turn = false;
-                aiTurn = true;
-                turnLabel.setText("AI's Turn 🤖");
-                
-                // If AI has also finished, move to Player 1
-                if (aiFinished) {
-                    aiTurn = false;
-                    playerTurn = true;
-                    turnLabel.setText("Player 1's Turn 🧑");
-                    rollDiceButton.setEnabled(true);
-                } else {
-                    // AI's turn
-                    Timer aiTimer = new Timer(1500, evt -> rollDice(3));
-                    aiTimer.setRepeats(false);
-                    aiTimer.start();
-                }
-            } else { // AI's turn
-                playerTurn = true;
-                player2Turn = false;
-                aiTurn = false;
-                turnLabel.setText("Player 1's Turn 🧑");
-                rollDiceButton.setEnabled(true);
-                
-                // If Player 1 has also finished, move to Player 2
-                if (player1Finished) {
-                    playerTurn = false;
-                    player2Turn = true;
-                    turnLabel.setText("Player 2's Turn 👤");
-                    
-                    // If Player 2 has also finished, all players are done
-                    if (player2Finished) {
-                        // This shouldn't happen as the game should have ended
-                        checkWin();
-                    }
-                }
-            }
-            
+
+    private void animateDice(int rollCount) {
+        int seat = engine.getCurrentPlayer();
+        int faceMillis = pacing.delay(DICE_FACE_MILLIS);
+        if (rollCount < DICE_FACES && faceMillis > 0) {
+            int tempRoll = random.nextInt(6) + 1;
+            diceResultLabel.setText(playerNames[seat] + " rolling... 🎲 " + tempRoll);
+            turns.schedule(faceMillis, () -> animateDice(rollCount + 1));
             return;
         }
 
-        int oldPosition;
-        int newPosition;
-        
-        if (playerNumber == 1) {
-            oldPosition = playerPosition;
-            newPosition = updatePosition(oldPosition, diceRoll, 1);
-        } else if (playerNumber == 2) {
-            oldPosition = player2Position;
-            newPosition = updatePosition(oldPosition, diceRoll, 2);
-        } else {
-            oldPosition = aiPosition;
-            newPosition = updatePosition(oldPosition, diceRoll, 3);
-        }
+        // Generate actual dice roll
+        pendingRoll = engine.rollDice();
+        diceResultLabel.setText(playerNames[seat] + " rolled: 🎲 " + pendingRoll);
 
-        animateMovement(playerNumber, oldPosition, newPosition, () -> {
-            // Update player position
-            if (playerNumber == 1) {
-            playerPosition = newPosition;
-                playerLabel.setText("Player 1: " + playerPosition);
-                
-                // Check if Player 1 won
-                boolean won = checkWin();
-                
-                // If Player 1 didn't win or we're continuing for rankings
-                if (!won || (won && !player2Finished && !aiFinished)) {
-                    playerTurn = false;
-                    player2Turn = true;
-                    aiTurn = false;
-                    turnLabel.setText("Player 2's Turn 👤");
-                    rollDiceButton.setEnabled(true);
-                    
-                    // Skip Player 2 if already finished
-                    if (player2Finished) {
-                        player2Turn = false;
-                        aiTurn = true;
-                        turnLabel.setText("AI's Turn 🤖");
-                        
-                        // Skip AI if already finished
-                        if (aiFinished) {
-                            aiTurn = false;
-                            playerTurn = true;
-                            turnLabel.setText("Player 1's Turn 🧑");
-                        } else {
-                            // AI's turn
-                            Timer aiTimer = new Timer(1500, evt -> rollDice(3));
-                            aiTimer.setRepeats(false);
-                            aiTimer.start();
-                        }
-                    }
-                }
-            } else if (playerNumber == 2) {
-                player2Position = newPosition;
-                player2Label.setText("Player 2: " + player2Position);
-                
-                // Check if Player 2 won
-                boolean won = checkWin();
-                
-                // If Player 2 didn't win or we're continuing for rankings
-                if (!won || (won && !player1Finished && !aiFinished)) {
-            playerTurn = false;
-                    player2Turn = false;
-                    aiTurn = true;
-            turnLabel.setText("AI's Turn 🤖");
-            rollDiceButton.setEnabled(false);
+        // Introduce a delay before offering power-up
+        turns.schedule(pacing.delay(ROLL_PAUSE_MILLIS), () -> turns.enter(TurnMachine.Phase.DECIDING_POWER_UP));
+    }
 
-                    // Skip AI if already finished
-                    if (aiFinished) {
-                        aiTurn = false;
-                        playerTurn = true;
-                        turnLabel.setText("Player 1's Turn 🧑");
-                        rollDiceButton.setEnabled(true);
-                        
-                        // Skip Player 1 if already finished
-                        if (player1Finished) {
-                            playerTurn = false;
-                            player2Turn = true;
-                            turnLabel.setText("Player 2's Turn 👤");
-                        }
-                    } else {
-            // AI takes its turn after a delay
-                        Timer aiTimer = new Timer(1500, evt -> rollDice(3));
-            aiTimer.setRepeats(false);
-            aiTimer.start();
-                    }
-                }
-            } else { // AI's turn
-            aiPosition = newPosition;
-            aiLabel.setText("AI: " + aiPosition);
-                
-                // Check if AI won
-                boolean won = checkWin();
-                
-                // If AI didn't win or we're continuing for rankings
-                if (!won || (won && !player1Finished && !player2Finished)) {
-            playerTurn = true;
-                    player2Turn = false;
-                    aiTurn = false;
-                    turnLabel.setText("Player 1's Turn 🧑");
-            rollDiceButton.setEnabled(true);
+    // Called once the power-up decision is made, with the bonus (0 for none) the seat added
+    private void moveBy(int diceRoll, int bonus) {
+        pendingRoll = diceRoll;
+        pendingBonus = bonus;
+        turns.enter(TurnMachine.Phase.MOVING);
+    }
 
-                    // Skip Player 1 if already finished
-                    if (player1Finished) {
-                        playerTurn = false;
-                        player2Turn = true;
-                        turnLabel.setText("Player 2's Turn 👤");
-                        
-                        // Skip Player 2 if already finished
-                        if (player2Finished) {
-                            player2Turn = false;
-                            aiTurn = true;
-                            turnLabel.setText("AI's Turn 🤖");
-                            
-                            // This shouldn't happen as the game should have ended
-            checkWin();
-        }
-                    }
-                }
+    // MOVING: applies the rules, then walks the token tile by tile
+    private void moveToken() {
+        int seat = engine.getCurrentPlayer();
+        lastMove = engine.move(pendingRoll + pendingBonus);
+        recordedTurns++;
+        animateFrame(seat, lastMove.to, System.nanoTime());
+    }
+
+    // Slides the token toward its target at a steady speed, one repaint per frame;
+    // at instant pacing it lands in a single frame
+    private void animateFrame(int seat, int target, long lastFrame) {
+        long now = System.nanoTime();
+        double current = boardView.getTokenPosition(seat);
+        int stepMillis = pacing.delay(STEP_MILLIS);
+        double step = stepMillis == 0 ? Double.POSITIVE_INFINITY : (now - lastFrame) / 1e6 / stepMillis;
+        double next = current < target ? Math.min(target, current + step) : Math.max(target, current - step);
+        boardView.setTokenPosition(seat, next);
+
+        int tile = (int) (current < target ? Math.floor(next) : Math.ceil(next));
+        if (tile != displayPositions[seat]) {
+            displayPositions[seat] = tile;
+            positionLabels[seat].setText(playerNames[seat] + ": " + tile);
+        }
+
+        if (next == target) {
+            if (lastMove.powerUpCollected) {
+                // The collected power-up disappears from the static layer
+                boardView.invalidateBackground();
             }
-            
-            updatePlayerLabels();
-        });
+            boardView.repaintTile(target);
+            turns.enter(TurnMachine.Phase.RESOLVING);
+            return;
+        }
+        turns.schedule(FRAME_MILLIS, () -> animateFrame(seat, target, now));
     }
 
-    private void animateMovement(int playerNumber, int oldPosition, int newPosition, Runnable onComplete) {
-        if (oldPosition == newPosition) {
-            updateBoard();
-            onComplete.run();
+    // RESOLVING: passes the turn on, or ends the round
+    private void resolveTurn() {
+        if (engine.isGameOver()) {
+            turns.enter(TurnMachine.Phase.FINISHED);
             return;
         }
-        
-    Timer movementTimer = new Timer(250, new ActionListener() {
-        int currentPosition = oldPosition;
-
-        @Override
-        public void actionPerformed(ActionEvent e) {
-            if (currentPosition == newPosition) {
-                ((Timer) e.getSource()).stop();
-                    updateBoard();
-                    onComplete.run();
-                return;
-            }
-                
-                currentPosition += (currentPosition < newPosition) ? 1 : -1;
-                
-                if (playerNumber == 1) {
-                    playerPosition = currentPosition;
-                    playerLabel.setText("Player 1: " + currentPosition);
-                } else if (playerNumber == 2) {
-                    player2Position = currentPosition;
-                    player2Label.setText("Player 2: " + currentPosition);
-            } else {
-                    aiPosition = currentPosition;
-                aiLabel.setText("AI: " + currentPosition);
-            }
-                
-                updateBoard();
+
+        engine.endTurn();
+        history = history.push(engine.captureState(), recordedTurns);
+        undoButton.setEnabled(true);
+        redoButton.setEnabled(false);
+        autosave();
+        updatePlayerLabels();
+        turns.enter(TurnMachine.Phase.AWAITING_ROLL);
+    }
+
+    // FINISHED: final rankings, then a fresh round after a short pause
+    private void finishRound() {
+        showFinalRankings();
+        showMessage("⏱️ " + turns.describeLatency());
+        statsEvents.drain();
+        showMessage(stats.describe());
+        stats.reset();
+        replayEvents.drain();
+        try {
+            replay.write(Paths.get(LAST_REPLAY));
+        } catch (IOException e) {
+            showMessage("Could not save the replay: " + e.getMessage());
+        }
+        if (journal != null) {
+            journal.clear();
         }
-    });
+        // Reset the game for a new round
+        turns.schedule(pacing.delay(ROUND_PAUSE_MILLIS), this::resetGame);
+    }
 
-    movementTimer.setRepeats(true);
-    movementTimer.start();
-}
+    // Turns a game event into feed messages and label updates; runs on the EDT
+    private void present(GameEvent event) {
+        int seat = event.seat;
+        String playerName = playerNames[seat];
+        boolean ai = engine.isAI(seat);
+        switch (event.type) {
+            case SKIPPED:
+                showMessage(ai ? "🤖 " + playerName + " skips this turn!" : "⏭️ " + playerName + " skips this turn!");
+                break;
+            case POWER_UP_USED:
+                powerUpLabels[seat].setText("🎁 Power-ups: " + event.held);
+                showMessage(ai
+                        ? "🤖 " + playerName + " used a +" + event.value + " power-up based on game theory analysis!"
+                        : playerName + " used a +" + event.value + " power-up!");
+                break;
+            case MOVED:
+                if (event.from == event.to) {
+                    showMessage(playerName + " needs an exact roll to reach " + engine.getBoard().size() + "! Staying at " + event.from);
+                }
+                break;
+            case TELEPORTED:
+                showMessage("🚀 " + playerName + " landed on a teleport! Moving forward by " +
+                        (event.to - event.from) + " steps to " + event.to);
+                break;
+            case BITTEN:
+                showMessage("Oh no! A snake bites " + playerName + "! 🐍 Moving back to " + event.to);
+                break;
+            case CLIMBED:
+                showMessage(playerName + " found a ladder! 🪜 Climbing up to " + event.to);
+                break;
+            case TRAPPED:
+                showMessage(ai
+                        ? "🤖 " + playerName + " landed on a trap! It will miss its next turn."
+                        : "⛔ Trap! " + playerName + " will miss their next turn.");
+                break;
+            case POWER_UP_COLLECTED:
+                powerUpLabels[seat].setText("🎁 Power-ups: " + event.held);
+                showMessage(ai
+                        ? "🎁 " + playerName + " collected a power-up! It can use it later to add 1-3 spaces to a roll."
+                        : "🎁 " + playerName + " collected a power-up! You can use it later to add 1-3 spaces to a roll.");
+                break;
+            case FINISHED:
+                showMessage(playerName + " finished in position " + event.value + "! " + (ai ? "🤖" : "🎉"));
+                break;
+            default:
+                break;
+        }
+    }
 
-private void showMessage(String message) {
-    JOptionPane.showMessageDialog(this, message);
-}
+    // Notifications go to the event feed and never hold up the turn
+    private void showMessage(String message) {
+        eventFeed.post(message);
+    }
 
-    private int updatePosition(int position, int diceRoll, int playerNumber) {
-    int newPosition = position + diceRoll;
-        String playerName = playerNumber == 1 ? "Player 1" : (playerNumber == 2 ? "Player 2" : "AI");
+    private void showFinalRankings() {
+        StringBuilder results = new StringBuilder("🏁 Game Complete! Final Rankings:\n");
+        for (int rank = 1; rank <= engine.getPlayerCount(); rank++) {
+            if (rank > 1) results.append("\n");
+            results.append(rank <= MEDALS.length ? MEDALS[rank - 1] : "    " + rank + "th Place: ")
+                   .append(playerNames[engine.getSeatWithRank(rank)]);
+        }
+        showMessage(results.toString());
+    }
 
-        // Prevent movement beyond 100
-    if (newPosition > 100) {
-            showMessage(playerName + " needs an exact roll to reach 100! Staying at " + position);
-            return position;
+    private void resetGame() {
+        turns.reset();
+        aiWorker.cancel();
+        engine.reset();
+        resumePlay();
     }
 
-        // Handle teleport on tile 11 and 44 - FIXED +10 STEPS
-    if (newPosition == 11 || newPosition == 44) {
-            // Always move exactly 10 steps forward when landing on a teleport
-            int teleportSteps = 10; // Fixed at exactly 10 steps
-        newPosition += teleportSteps;
-
-        // Ensure teleport does not exceed 100
-        if (newPosition > 100) newPosition = 100;
-
-            showMessage("🚀 " + playerName + " landed on a teleport! Moving forward by " + 
-                    teleportSteps + " steps to " + newPosition);
-            
-            // Debug output to verify teleport movement
-            System.out.println(playerName + " teleported from " + (newPosition - teleportSteps) + 
-                              " to " + newPosition + " (+10 steps)");
+    // Shows whatever state the engine is in now and continues the game from there
+    private void resumePlay() {
+        GameState state = engine.captureState();
+        replayEvents.drain();
+        replay = new ReplayLog(engine.getBoard(), state);
+        recordedTurns = 0;
+        history = History.start(state, 0);
+        autosave();
+        showState();
     }
 
-    // Check for snakes and ladders (AFTER teleport)
-    if (snakes.containsKey(newPosition)) {
-        int snakeBitePosition = snakes.get(newPosition);
-            showMessage("Oh no! A snake bites " + playerName + "! 🐍 Moving back to " + snakeBitePosition);
-        newPosition = snakeBitePosition;
-    } else if (ladders.containsKey(newPosition)) {
-        int ladderTop = ladders.get(newPosition);
-            showMessage(playerName + " found a ladder! 🪜 Climbing up to " + ladderTop);
-        newPosition = ladderTop;
+    // The statistics count the moves that led to the current state, so they start over
+    // whenever the game jumps to another one; moves already queued are counted first
+    private void resetStats() {
+        statsEvents.drain();
+        stats.reset();
     }
 
-    // Handle trap on tile 29 and 82 (Skip next turn)
-    if (newPosition == 29 || newPosition == 82) {
-            if (playerNumber == 1) {
-            skipTurnPlayer = true;
-                showMessage("⛔ Trap! Player 1 will miss their next turn.");
-            } else if (playerNumber == 2) {
-                skipTurnPlayer2 = true;
-                showMessage("⛔ Trap! Player 2 will miss their next turn.");
-        } else {
-            skipTurnAI = true;
-                showMessage("🤖 AI landed on a trap! It will miss its next turn.");
-            }
+    // Goes back to the start of the previous turn a human played, or of the previous
+    // turn at all when every seat is an AI; the rolls come out the same as before
+    private void undo() {
+        if (!turns.is(TurnMachine.Phase.AWAITING_ROLL) || !history.canUndo()) {
+            return;
         }
+        do {
+            history = history.undo();
+        } while (history.canUndo() && skipsOnUndo(history.current()));
+        restoreHistory("↶ Undone");
+    }
 
-        // Check if landed on a power-up tile
-        if (powerUpTiles.containsKey(newPosition) && powerUpTiles.get(newPosition)) {
-            if (playerNumber == 1) {
-                player1PowerUps++;
-                player1PowerUpLabel.setText("🎁 Power-ups: " + player1PowerUps);
-                showMessage("🎁 Player 1 collected a power-up! You can use it later to add 1-3 spaces to a roll.");
-            } else if (playerNumber == 2) {
-                player2PowerUps++;
-                player2PowerUpLabel.setText("🎁 Power-ups: " + player2PowerUps);
-                showMessage("🎁 Player 2 collected a power-up! You can use it later to add 1-3 spaces to a roll.");
-            } else {
-                aiPowerUps++;
-                aiPowerUpLabel.setText("🎁 Power-ups: " + aiPowerUps);
-                showMessage("🎁 AI collected a power-up! It can use it later to add 1-3 spaces to a roll.");
+    private void redo() {
+        if (!turns.is(TurnMachine.Phase.AWAITING_ROLL) || !history.canRedo()) {
+            return;
+        }
+        do {
+            history = history.redo();
+        } while (history.canRedo() && skipsOnUndo(history.current()));
+        restoreHistory("↷ Redone");
+    }
+
+    // AI turns replay identically from the same state, so undo and redo step over them
+    private boolean skipsOnUndo(GameState state) {
+        for (int seat = 0; seat < state.getPlayerCount(); seat++) {
+            if (!state.isAI(seat)) {
+                return state.isAI(state.getCurrentPlayer());
             }
-            
-            // Mark this power-up tile as collected (so it can't be collected again)
-            powerUpTiles.put(newPosition, false);
         }
+        return false;
+    }
 
-    return newPosition;
-}
+    // Jumps straight to the history's current state; tokens are placed, not animated
+    private void restoreHistory(String message) {
+        turns.reset();
+        aiWorker.cancel();
+        engine.restoreState(history.current());
+        replayEvents.drain();
+        resetStats();
+        recordedTurns = history.getReplayTurns();
+        replay.rewind(recordedTurns);
+        autosave();
+        showMessage(message + " to " + playerNames[engine.getCurrentPlayer()] + "'s turn");
+        showState();
+    }
 
-    private boolean checkWin() {
-        boolean someoneWon = false;
-        
-        // Check if Player 1 reached 100 and hasn't been ranked yet
-        if (playerPosition >= 100 && !player1Finished) {
-            player1Finished = true;
-            player1Rank = currentRank;
-            currentRank++;
-            
-            JOptionPane.showMessageDialog(this, 
-                "Player 1 finished in position " + player1Rank + "! 🎉");
-            someoneWon = true;
-        }
-        
-        // Check if Player 2 reached 100 and hasn't been ranked yet
-        if (player2Position >= 100 && !player2Finished) {
-            player2Finished = true;
-            player2Rank = currentRank;
-            currentRank++;
-            
-            JOptionPane.showMessageDialog(this, 
-                "Player 2 finished in position " + player2Rank + "! 🎉");
-            someoneWon = true;
-        }
-        
-        // Check if AI reached 100 and hasn't been ranked yet
-        if (aiPosition >= 100 && !aiFinished) {
-            aiFinished = true;
-            aiRank = currentRank;
-            currentRank++;
-            
-            JOptionPane.showMessageDialog(this, 
-                "AI finished in position " + aiRank + "! 🤖");
-            someoneWon = true;
+    // Redraws everything from the engine and hands the turn to whoever is next
+    private void showState() {
+        syncDisplayPositions();
+        undoButton.setEnabled(history.canUndo());
+        redoButton.setEnabled(history.canRedo());
+
+        for (int seat = 0; seat < engine.getPlayerCount(); seat++) {
+            powerUpLabels[seat].setText("🎁 Power-ups: " + engine.getPowerUps(seat));
         }
-        
-        // Check if all players have finished
-        if (player1Finished && player2Finished && aiFinished) {
-            // Show final rankings
-            StringBuilder results = new StringBuilder("Final Rankings:\n\n");
-            
-            // Find who got which rank
-            String firstPlace = player1Rank == 1 ? "Player 1" : (player2Rank == 1 ? "Player 2" : "AI");
-            String secondPlace = player1Rank == 2 ? "Player 1" : (player2Rank == 2 ? "Player 2" : "AI");
-            String thirdPlace = player1Rank == 3 ? "Player 1" : (player2Rank == 3 ? "Player 2" : "AI");
-            
-            results.append("🥇 1st Place: ").append(firstPlace).append("\n");
-            results.append("🥈 2nd Place: ").append(secondPlace).append("\n");
-            results.append("🥉 3rd Place: ").append(thirdPlace);
-            
-            JOptionPane.showMessageDialog(this, results.toString(), "Game Complete!", JOptionPane.INFORMATION_MESSAGE);
-            
-            // Reset the game for a new round
-        resetGame();
-        return true;
-    }
-        
+
+        // Update UI labels for the current state
         updatePlayerLabels();
-        return someoneWon;
-}
-    
-private void resetGame() {
-    // Reset player and AI positions
-    playerPosition = 1;
-        player2Position = 1;
-    aiPosition = 1;
-    
-    // Reset any flags like skip turns
-    skipTurnPlayer = false;
-        skipTurnPlayer2 = false;
-    skipTurnAI = false;
-        
-        // Reset turn order
-        playerTurn = true;
-        player2Turn = false;
-        aiTurn = false;
-        
-        // Reset power-ups
-        player1PowerUps = 0;
-        player2PowerUps = 0;
-        aiPowerUps = 0;
-        player1PowerUpLabel.setText("🎁 Power-ups: 0");
-        player2PowerUpLabel.setText("🎁 Power-ups: 0");
-        aiPowerUpLabel.setText("🎁 Power-ups: 0");
-        
-        // IMPORTANT: Reset power-up tiles to be available again
-        for (Integer tilePosition : powerUpTiles.keySet()) {
-            powerUpTiles.put(tilePosition, true);
-        }
-        
-        // Reset player rankings
-        player1Finished = false;
-        player2Finished = false;
-        aiFinished = false;
-        player1Rank = 0;
-        player2Rank = 0;
-        aiRank = 0;
-        currentRank = 1;
-    
-    // Update UI labels for the initial state
-        playerLabel.setText("Player 1: " + playerPosition);
-        player2Label.setText("Player 2: " + player2Position);
-    aiLabel.setText("AI: " + aiPosition);
-        turnLabel.setText("Player 1's Turn 🧑");
-    diceResultLabel.setText("Dice: 🎲 -");
-        
+        turnLabel.setText(turnText[engine.getCurrentPlayer()]);
+        diceResultLabel.setText("Dice: 🎲 -");
+
         // Update the board
         updateBoard();
-    
-    // Enable the roll dice button for the next round
-    rollDiceButton.setEnabled(true);
-}
 
-    private void offerPowerUp(int playerNumber, int diceRoll) {
-        String playerName = playerNumber == 1 ? "Player 1" : (playerNumber == 2 ? "Player 2" : "AI");
-        int currentPosition = playerNumber == 1 ? playerPosition : (playerNumber == 2 ? player2Position : aiPosition);
-        int powerUps = playerNumber == 1 ? player1PowerUps : (playerNumber == 2 ? player2PowerUps : aiPowerUps);
-        
+        // Hand the turn to whoever the engine says is next
+        turns.enter(TurnMachine.Phase.AWAITING_ROLL);
+    }
+
+    // DECIDING_POWER_UP: lets a human choose, or the AI decide, whether to boost the roll
+    private void offerPowerUp() {
+        int seat = engine.getCurrentPlayer();
+        int diceRoll = pendingRoll;
+        String playerName = playerNames[seat];
+        int currentPosition = engine.getPosition(seat);
+        int powerUps = engine.getPowerUps(seat);
+
         // If no power-ups or AI's turn with no strategic benefit, proceed normally
-        if (powerUps == 0 || (playerNumber == 3 && !shouldAIUsePowerUp(diceRoll))) {
-            updateGameState(playerNumber, diceRoll);
+        if (powerUps == 0) {
+            moveBy(diceRoll, 0);
             return;
         }
-        
+
         // For human players, show dialog
-        if (playerNumber == 1 || playerNumber == 2) {
+        if (!engine.isAI(seat)) {
             // Create options for power-up usage
             String[] options = {"Use +1", "Use +2", "Use +3", "Don't use power-up"};
-            
+
             // Show logical analysis to help player decide
             StringBuilder analysis = new StringBuilder("Logical Analysis (Modus Ponens):\n\n");
-            
+
             // Regular move analysis
             int regularPosition = currentPosition + diceRoll;
             analysis.append("If you don't use a power-up:\n");
             appendPositionAnalysis(analysis, regularPosition);
-            
+
             // Power-up move analysis
             for (int i = 1; i <= 3; i++) {
                 int powerUpPosition = currentPosition + diceRoll + i;
-                if (powerUpPosition <= 100) {
+                if (powerUpPosition <= engine.getBoard().size()) {
                     analysis.append("\nIf you use +" + i + " power-up:\n");
                     appendPositionAnalysis(analysis, powerUpPosition);
                 }
             }
-            
+
             // Show dialog with analysis and options
             int choice = JOptionPane.showOptionDialog(
-                this, 
+                this,
                 analysis.toString(),
-                playerName + " - Use Power-Up?", 
-                JOptionPane.DEFAULT_OPTION, 
-                JOptionPane.QUESTION_MESSAGE, 
-                null, 
-                options, 
+                playerName + " - Use Power-Up?",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                options,
                 options[3]
             );
-            
+
             // Process choice
             if (choice >= 0 && choice <= 2) {
                 // Use power-up
                 int extraSpaces = choice + 1;
-                if (playerNumber == 1) {
-                    player1PowerUps--;
-                    player1PowerUpLabel.setText("🎁 Power-ups: " + player1PowerUps);
-                } else {
-                    player2PowerUps--;
-                    player2PowerUpLabel.setText("🎁 Power-ups: " + player2PowerUps);
-                }
-                showMessage(playerName + " used a +" + extraSpaces + " power-up!");
-                updateGameState(playerNumber, diceRoll + extraSpaces);
+                engine.usePowerUp(seat, extraSpaces);
+                moveBy(diceRoll, extraSpaces);
             } else {
                 // Don't use power-up
-                updateGameState(playerNumber, diceRoll);
+                moveBy(diceRoll, 0);
             }
-        } 
-        // For AI, use game theory to decide
+        }
+        // For AI, use game theory to decide; the answer comes back on the EDT later
         else {
-            int aiDecision = getAIPowerUpDecision(diceRoll);
-            if (aiDecision > 0) {
-                aiPowerUps--;
-                aiPowerUpLabel.setText("🎁 Power-ups: " + aiPowerUps);
-                showMessage("🤖 AI used a +" + aiDecision + " power-up based on game theory analysis!");
-                
-                // Show AI's reasoning occasionally
-                if (random.nextInt(3) == 0) {
-                    showAIReasoning(diceRoll, aiDecision);
-                }
-                
-                updateGameState(playerNumber, diceRoll + aiDecision);
-            } else {
-                updateGameState(playerNumber, diceRoll);
-            }
+            aiWorker.decide(engine.captureState(), diceRoll, this::applyAIDecision);
         }
     }
 
-    private void appendPositionAnalysis(StringBuilder analysis, int position) {
-        if (position > 100) {
-            analysis.append("  • You would exceed 100 and stay in place.\n");
+    private void applyAIDecision(PowerUpAI.Decision decision) {
+        if (!turns.is(TurnMachine.Phase.DECIDING_POWER_UP) || decision.seat != engine.getCurrentPlayer()) {
             return;
         }
-        
-        analysis.append("  • You would land on position " + position + ".\n");
-        
-        if (snakes.containsKey(position)) {
-            analysis.append("  • If you land on " + position + ", you will slide down to " + 
-                          snakes.get(position) + ".\n");
-            analysis.append("  • Therefore, you would end up at position " + snakes.get(position) + ".\n");
-        } else if (ladders.containsKey(position)) {
-            analysis.append("  • If you land on " + position + ", you will climb up to " + 
-                          ladders.get(position) + ".\n");
-            analysis.append("  • Therefore, you would end up at position " + ladders.get(position) + ".\n");
-        } else if (traps.containsKey(position)) {
-            analysis.append("  • If you land on " + position + ", you will skip your next turn.\n");
-        } else if (teleports.containsKey(position)) {
-            analysis.append("  • If you land on " + position + ", you will teleport forward 5-10 spaces.\n");
-        } else if (powerUpTiles.containsKey(position)) {
-            analysis.append("  • If you land on " + position + ", you will collect another power-up.\n");
-        }
-    }
+        if (decision.bonus > 0) {
+            engine.usePowerUp(decision.seat, decision.bonus);
 
-    private boolean shouldAIUsePowerUp(int diceRoll) {
-        if (aiPowerUps == 0) return false;
-        
-        // Calculate current positions and distances
-        int regularPosition = aiPosition + diceRoll;
-        int maxPlayerPosition = Math.max(playerPosition, player2Position);
-        int distanceToLeader = Math.max(playerPosition - aiPosition, player2Position - aiPosition);
-        
-        // Don't use power-up if AI is leading and no immediate threats
-        if (aiPosition > maxPlayerPosition && !snakes.containsKey(regularPosition)) {
-            // Save power-up unless very close to winning
-            if (aiPosition + diceRoll < 95) {
-                System.out.println("AI is leading, saving power-up for critical situations");
-                return false;
-            }
-        }
-        
-        // Check if any player is close to winning (position > 90)
-        boolean playersNearWin = playerPosition > 90 || player2Position > 90;
-        
-        // Calculate value of using vs. not using power-up
-        double regularMoveValue = evaluatePosition(regularPosition);
-        double bestPowerUpValue = regularMoveValue;
-        int bestPowerUp = 0;
-        
-        // Analyze each power-up option
-        for (int i = 1; i <= 3; i++) {
-            int newPos = aiPosition + diceRoll + i;
-            if (newPos <= 100) {
-                double value = evaluatePosition(newPos);
-                // Increase value if position leads to immediate benefits
-                if (ladders.containsKey(newPos) || teleports.containsKey(newPos)) {
-                    value += 0.3; // Significant bonus for immediate advantages
-                }
-                if (value > bestPowerUpValue) {
-                    bestPowerUpValue = value;
-                    bestPowerUp = i;
-                }
+            // Show AI's reasoning occasionally
+            if (random.nextInt(3) == 0) {
+                showAIReasoning(decision);
             }
         }
-        
-        // Debug information
-        System.out.println("AI Decision Analysis:");
-        System.out.println("Distance to leader: " + distanceToLeader);
-        System.out.println("Players near win: " + playersNearWin);
-        System.out.println("Regular move value: " + regularMoveValue);
-        System.out.println("Best power-up value: " + bestPowerUpValue);
-        
-        // Decision criteria
-        boolean shouldUse = false;
-        
-        // Use power-up if:
-        // 1. Players are near winning and AI needs to catch up
-        if (playersNearWin && distanceToLeader > 0) {
-            shouldUse = true;
-        }
-        // 2. Regular move leads to a snake
-        else if (snakes.containsKey(regularPosition)) {
-            shouldUse = true;
-        }
-        // 3. Power-up leads to significant advantage (ladder/teleport)
-        else if (bestPowerUpValue > regularMoveValue + 0.3) {
-            shouldUse = true;
-        }
-        // 4. Very close to winning (>95) and power-up helps
-        else if (aiPosition > 95 && bestPowerUpValue > regularMoveValue) {
-            shouldUse = true;
-        }
-        // 5. Significantly behind other players (>20 spaces)
-        else if (distanceToLeader > 20 && bestPowerUpValue > regularMoveValue) {
-            shouldUse = true;
-        }
-        
-        System.out.println("AI will use power-up: " + shouldUse);
-        return shouldUse;
+        moveBy(decision.diceRoll, decision.bonus);
     }
 
-    private int getAIPowerUpDecision(int diceRoll) {
-        if (aiPowerUps == 0) return 0;
-        
-        int bestPowerUp = 0;
-        double bestValue = evaluatePosition(aiPosition + diceRoll);
-        
-        System.out.println("AI Power-Up Analysis for position " + aiPosition + " with roll " + diceRoll);
-        System.out.println("Regular move value: " + bestValue);
-        
-        // Evaluate each power-up option
-        for (int i = 1; i <= 3; i++) {
-            int newPos = aiPosition + diceRoll + i;
-            if (newPos <= 100) {
-                double value = evaluatePosition(newPos);
-                System.out.println("Power-up +" + i + " to position " + newPos + " has value " + value);
-                
-                if (value > bestValue) {
-                    bestValue = value;
-                    bestPowerUp = i;
-                }
-            }
+    private void appendPositionAnalysis(StringBuilder analysis, int position) {
+        if (position > engine.getBoard().size()) {
+            analysis.append("  • You would exceed " + engine.getBoard().size() + " and stay in place.\n");
+            return;
         }
-        
-        System.out.println("AI chose power-up: +" + bestPowerUp);
-        return bestPowerUp;
-    }
 
-    private double evaluatePosition(int position) {
-        if (position > 100) return 0;
-        
-        // Base value is progress toward goal (0-1)
-        double value = position / 100.0;
-        
-        // Consider distance to other players
-        int distanceToPlayer1 = playerPosition - position;
-        int distanceToPlayer2 = player2Position - position;
-        
-        // Add urgency if falling behind
-        if (distanceToPlayer1 > 20 || distanceToPlayer2 > 20) {
-            value += 0.2; // Increase value when significantly behind
-        }
-        
-        // Analyze board elements
-        if (snakes.containsKey(position)) {
-            value = snakes.get(position) / 100.0 - 0.4; // Bigger snake penalty
-        } else if (ladders.containsKey(position)) {
-            value = ladders.get(position) / 100.0 + 0.4; // Bigger ladder bonus
-        } else if (traps.containsKey(position)) {
-            value -= 0.3; // Bigger trap penalty
-        } else if (teleports.containsKey(position)) {
-            value += 0.25; // Significant teleport bonus
-        } else if (powerUpTiles.containsKey(position) && powerUpTiles.get(position)) {
-            // Value power-ups more when behind or near win
-            boolean isBehind = position < playerPosition || position < player2Position;
-            boolean isNearWin = position > 80;
-            if (isBehind || isNearWin) {
-                value += 0.35;
-            } else {
-                value += 0.2;
-            }
-        }
-        
-        // Progressive scoring for end-game positions
-        if (position > 95) {
-            value += 0.5; // Very high value for being close to winning
-        } else if (position > 90) {
-            value += 0.4;
-        } else if (position > 80) {
-            value += 0.2;
-        }
-        
-        // Consider relative position to other players
-        boolean isLeading = position > playerPosition && position > player2Position;
-        if (isLeading) {
-            value += 0.1; // Bonus for maintaining lead
+        analysis.append("  • You would land on position " + position + ".\n");
+
+        Board board = engine.getBoard();
+        byte type = board.getType(position);
+        if (type == Board.SNAKE) {
+            analysis.append("  • If you land on " + position + ", you will slide down to " +
+                          board.getTarget(position) + ".\n");
+            analysis.append("  • Therefore, you would end up at position " + board.resolve(position) + ".\n");
+        } else if (type == Board.LADDER) {
+            analysis.append("  • If you land on " + position + ", you will climb up to " +
+                          board.getTarget(position) + ".\n");
+            analysis.append("  • Therefore, you would end up at position " + board.resolve(position) + ".\n");
+        } else if (type == Board.TRAP) {
+            analysis.append("  • If you land on " + position + ", you will skip your next turn.\n");
+        } else if (type == Board.TELEPORT) {
+            analysis.append("  • If you land on " + position + ", you will teleport forward to " +
+                          board.getTarget(position) + ".\n");
+            analysis.append("  • Therefore, you would end up at position " + board.resolve(position) + ".\n");
+        } else if (type == Board.POWER_UP) {
+            analysis.append("  • If you land on " + position + ", you will collect another power-up.\n");
         }
-        
-        return value;
     }
 
-    private void showAIReasoning(int diceRoll, int powerUpUsed) {
-        StringBuilder reasoning = new StringBuilder("🤖 AI's Game Theory Analysis:\n\n");
-        
-        int regularPosition = aiPosition + diceRoll;
+    private void showAIReasoning(PowerUpAI.Decision decision) {
+        int seat = decision.seat;
+        int powerUpUsed = decision.bonus;
+        StringBuilder reasoning = new StringBuilder("🤖 " + playerNames[seat] + "'s Game Theory Analysis:\n\n");
+
+        int regularPosition = engine.getPosition(seat) + decision.diceRoll;
         int powerUpPosition = regularPosition + powerUpUsed;
-        
+
         // Regular move analysis
         reasoning.append("Without power-up:\n");
         reasoning.append("• Landing on position " + regularPosition + "\n");
-        double regularValue = evaluatePosition(regularPosition);
-        reasoning.append("• Value: " + String.format("%.2f", regularValue) + "\n\n");
-        
+        double regularValue = decision.regularValue;
+        String valueLabel = decision.expectedTurns ? "• Expected turns left: " : "• Value: ";
+        reasoning.append(valueLabel + String.format("%.2f", regularValue) + "\n\n");
+
         // Power-up move analysis
         reasoning.append("With +" + powerUpUsed + " power-up:\n");
         reasoning.append("• Landing on position " + powerUpPosition + "\n");
-        double powerUpValue = evaluatePosition(powerUpPosition);
-        reasoning.append("• Value: " + String.format("%.2f", powerUpValue) + "\n\n");
-        
+        double powerUpValue = decision.chosenValue;
+        reasoning.append(valueLabel + String.format("%.2f", powerUpValue) + "\n\n");
+
         // Explain decision
         reasoning.append("Decision: Use +" + powerUpUsed + " power-up\n");
-        reasoning.append("Improvement: +" + String.format("%.2f", powerUpValue - regularValue));
-        
+        if (decision.expectedTurns) {
+            reasoning.append("Saves " + String.format("%.2f", regularValue - powerUpValue) + " turns on average");
+        } else {
+            reasoning.append("Improvement: +" + String.format("%.2f", powerUpValue - regularValue));
+        }
+
         // Add specific reasoning based on what's at the destination
-        if (ladders.containsKey(powerUpPosition)) {
-            reasoning.append("\n\nRationale: Landing on a ladder at position " + 
-                           powerUpPosition + " to climb to " + ladders.get(powerUpPosition));
-        } else if (snakes.containsKey(regularPosition)) {
+        Board board = engine.getBoard();
+        if (board.isLadder(powerUpPosition)) {
+            reasoning.append("\n\nRationale: Landing on a ladder at position " +
+                           powerUpPosition + " to climb to " + board.getTarget(powerUpPosition));
+        } else if (board.isSnake(regularPosition)) {
             reasoning.append("\n\nRationale: Avoiding a snake at position " + regularPosition);
-        } else if (powerUpPosition >= 95) {
-            reasoning.append("\n\nRationale: Getting closer to winning position (100)");
+        } else if (powerUpPosition >= board.size() - 5) {
+            reasoning.append("\n\nRationale: Getting closer to winning position (" + board.size() + ")");
         }
-        
-        JOptionPane.showMessageDialog(this, reasoning.toString(), 
-                                    "AI Game Theory Analysis", JOptionPane.INFORMATION_MESSAGE);
+
+        showMessage(reasoning.toString());
     }
 
-    private void updatePlayerLabels() {
-        if (player1Finished) {
-            playerLabel.setText("Player 1: " + playerPosition + " (Rank: " + player1Rank + ")");
-        } else {
-            playerLabel.setText("Player 1: " + playerPosition);
-        }
-        
-        if (player2Finished) {
-            player2Label.setText("Player 2: " + player2Position + " (Rank: " + player2Rank + ")");
-        } else {
-            player2Label.setText("Player 2: " + player2Position);
+    // Queues the state between turns for the journal; the write happens off the EDT
+    private void autosave() {
+        if (journal != null) {
+            journal.append(engine.captureState());
         }
-        
-        if (aiFinished) {
-            aiLabel.setText("AI: " + aiPosition + " (Rank: " + aiRank + ")");
-        } else {
-            aiLabel.setText("AI: " + aiPosition);
+    }
+
+    // Opens (or brings back) a window charting each seat's chance of finishing within k turns
+    private void showOdds() {
+        if (oddsDialog == null) {
+            oddsChart = new DistributionChart();
+            oddsDialog = new JDialog(this, "Chance of finishing within k turns", false);
+            oddsDialog.add(oddsChart);
+            oddsDialog.pack();
+            oddsDialog.setLocationRelativeTo(this);
+        }
+        updateOdds();
+        oddsDialog.setVisible(true);
+    }
+
+    // Recomputes the curves from where every unfinished seat stands now, power-ups aside
+    private void updateOdds() {
+        double[][] curves = new double[engine.getPlayerCount()][];
+        for (int seat = 0; seat < curves.length; seat++) {
+            if (!engine.isFinished(seat)) {
+                curves[seat] = distributions.cumulative(engine.getPosition(seat), engine.isSkipPending(seat));
+            }
         }
+        oddsChart.setSeries(curves, playerColors, playerNames);
     }
 
-    // Add a method to create a fallback star image if the image file is missing
-    private ImageIcon createFallbackStarImage() {
-        // Create a 40x40 pixel image with a transparent background
-        BufferedImage starImage = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = starImage.createGraphics();
-        
-        // Enable anti-aliasing for smoother edges
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        
-        // Draw a gold star
-        int[] xPoints = {20, 14, 0, 8, 3, 20, 37, 32, 40, 26, 20};
-        int[] yPoints = {0, 13, 13, 22, 40, 30, 40, 22, 13, 13, 0};
-        
-        // Fill with gold color
-        g2d.setColor(new Color(255, 215, 0));  // Gold color
-        g2d.fillPolygon(xPoints, yPoints, xPoints.length);
-        
-        // Add a darker gold border
-        g2d.setColor(new Color(218, 165, 32));  // Darker gold
-        g2d.setStroke(new BasicStroke(1.5f));
-        g2d.drawPolygon(xPoints, yPoints, xPoints.length);
-        
-        g2d.dispose();
-        return new ImageIcon(starImage);
+    private void updatePlayerLabels() {
+        for (int seat = 0; seat < engine.getPlayerCount(); seat++) {
+            if (engine.isFinished(seat)) {
+                positionLabels[seat].setText(playerNames[seat] + ": " + engine.getPosition(seat) + " (Rank: " + engine.getRank(seat) + ")");
+            } else {
+                positionLabels[seat].setText(playerNames[seat] + ": " + engine.getPosition(seat));
+            }
+        }
+        if (oddsDialog != null && oddsDialog.isVisible()) {
+            updateOdds();
+        }
     }
 }
-
@@ -0,0 +1,59 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+// All tile sprites packed side by side into one image created for the screen's
+// own pixel format, so Java2D can keep it in video memory and blit sub-regions
+// of it without converting pixels on every draw.
+public class SpriteAtlas {
+    // Sprite files in atlas order
+    public static final String[] FILES = {
+            "snake1.png", "snake2.png", "snake3.png", "snake4.png",
+            "ladder1.png", "ladder2.png", "ladder3.png", "ladder4.png",
+            "trap.png", "teleport.png", "powerup.png"};
+    public static final int SNAKES = 0, LADDERS = 4, VARIANTS = 4;
+    public static final int TRAP = 8, TELEPORT = 9, POWER_UP = 10;
+
+    private final Image image;
+    private final int cellSize;
+    private final int count;
+
+    // Sprites are drawn at cellSize x cellSize, in the same order as FILES
+    public SpriteAtlas(Image[] sprites, int cellSize) {
+        this.cellSize = cellSize;
+        this.count = sprites.length;
+        int width = cellSize * sprites.length;
+        BufferedImage atlas;
+        if (GraphicsEnvironment.isHeadless()) {
+            atlas = new BufferedImage(width, cellSize, BufferedImage.TYPE_INT_ARGB_PRE);
+        } else {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            atlas = config.createCompatibleImage(width, cellSize, Transparency.TRANSLUCENT);
+        }
+
+        Graphics2D g2d = atlas.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        for (int i = 0; i < sprites.length; i++) {
+            if (sprites[i] != null) {
+                g2d.drawImage(sprites[i], i * cellSize, 0, cellSize, cellSize, null);
+            }
+        }
+        g2d.dispose();
+        image = atlas;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Draws one sprite scaled into the given box
+    public void draw(Graphics2D g2d, int index, int x, int y, int width, int height) {
+        int sx = index * cellSize;
+        g2d.drawImage(image, x, y, x + width, y + height, sx, 0, sx + cellSize, cellSize, null);
+    }
+}
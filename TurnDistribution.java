@@ -0,0 +1,216 @@
+import java.util.Arrays;
+
+// Exact distribution of how many of its own turns a seat needs to finish,
+// by dynamic programming rather than sampling. The seat's state is its tile
+// plus whether a trap makes it sit out its next turn; each turn the
+// probability mass of every state is pushed along the six rolls, exactly as
+// GameEngine plays them (a roll past the last tile stays put, a trap costs the
+// following turn). Whatever reaches the last tile is added to the result.
+//
+// Only the band of tiles that still holds mass is swept, so the classic board
+// takes well under a millisecond and one of a few thousand tiles some tens of
+// milliseconds. Power-ups are not modelled.
+public class TurnDistribution {
+    public static final double TAIL = 1e-9;     // stop once less than this is left unfinished
+    public static final int MAX_TURNS = 100_000;
+    private static final int FINISHED = -1;
+    // Mass below this is dropped instead of spread, so the swept band follows where the
+    // seat can realistically be; all of it together stays far below TAIL
+    private static final double NEGLIGIBLE = 1e-20;
+    private static final double SETTLED = 1e-15; // race() stops once nobody unfinished is this likely
+
+    private final Board board;
+    // [tile * 6 + roll - 1]: FINISHED, or the next state as tile * 2 + (1 if trapped)
+    private final int[] moves;
+
+    public TurnDistribution(Board board) {
+        this.board = board;
+        int size = board.size();
+        moves = new int[(size + 1) * 6];
+        for (int tile = 1; tile <= size; tile++) {
+            for (int roll = 1; roll <= 6; roll++) {
+                int next = board.destination(tile, roll);
+                boolean trapped = tile + roll <= size && board.isTrap(next);
+                moves[tile * 6 + roll - 1] = next >= size ? FINISHED : next * 2 + (trapped ? 1 : 0);
+            }
+        }
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    // Entry k is the probability of having finished within k turns, starting on the
+    // tile (with a skipped turn pending if the seat was just trapped). The array
+    // ends once all but TAIL of the mass has finished, or at MAX_TURNS.
+    public double[] cumulative(int tile, boolean skipPending) {
+        int size = board.size();
+        if (tile >= size) {
+            return new double[] {1};
+        }
+        double[] free = new double[size + 1], skipping = new double[size + 1];
+        double[] nextFree = new double[size + 1], nextSkipping = new double[size + 1];
+        (skipPending ? skipping : free)[tile] = 1;
+        int low = tile, high = tile;
+
+        double[] result = new double[64];
+        double finished = 0;
+        int turn = 0;
+        while (1 - finished > TAIL && turn < MAX_TURNS) {
+            int nextLow = size, nextHigh = 0;
+            for (int current = low; current <= high; current++) {
+                double waiting = skipping[current];
+                if (waiting > NEGLIGIBLE) {
+                    // The trapped turn passes with the seat where it is
+                    nextFree[current] += waiting;
+                    nextLow = Math.min(nextLow, current);
+                    nextHigh = Math.max(nextHigh, current);
+                }
+                double share = free[current] / 6;
+                if (share <= NEGLIGIBLE) {
+                    continue;
+                }
+                int base = current * 6;
+                for (int roll = 0; roll < 6; roll++) {
+                    int move = moves[base + roll];
+                    if (move == FINISHED) {
+                        finished += share;
+                        continue;
+                    }
+                    int next = move >> 1;
+                    if ((move & 1) != 0) {
+                        nextSkipping[next] += share;
+                    } else {
+                        nextFree[next] += share;
+                    }
+                    nextLow = Math.min(nextLow, next);
+                    nextHigh = Math.max(nextHigh, next);
+                }
+            }
+            Arrays.fill(free, low, high + 1, 0);
+            Arrays.fill(skipping, low, high + 1, 0);
+            double[] swap = free;
+            free = nextFree;
+            nextFree = swap;
+            swap = skipping;
+            skipping = nextSkipping;
+            nextSkipping = swap;
+            low = nextLow;
+            high = nextHigh;
+
+            if (++turn == result.length) {
+                result = Arrays.copyOf(result, result.length * 2);
+            }
+            result[turn] = Math.min(1, finished);
+        }
+        return Arrays.copyOf(result, turn + 1);
+    }
+
+    // Probability of finishing on exactly turn k, from a cumulative distribution
+    public static double[] probabilities(double[] cumulative) {
+        double[] exact = new double[cumulative.length];
+        for (int turn = 1; turn < cumulative.length; turn++) {
+            exact[turn] = cumulative[turn] - cumulative[turn - 1];
+        }
+        return exact;
+    }
+
+    // Fewest turns that finish with at least the given probability, or -1 if never within the table
+    public static int quantile(double[] cumulative, double probability) {
+        for (int turn = 0; turn < cumulative.length; turn++) {
+            if (cumulative[turn] >= probability) {
+                return turn;
+            }
+        }
+        return -1;
+    }
+
+    // Chance of each seat finishing first when seats that never meet race each other,
+    // given in the order they move from now on, each by its own cumulative distribution.
+    // A seat wins on its n-th turn if it finishes then while every seat moving before it
+    // needs more than n turns and every seat moving after it more than n - 1.
+    public static double[] race(double[]... cumulative) {
+        int seats = cumulative.length;
+        int longest = 0;
+        for (double[] seat : cumulative) {
+            longest = Math.max(longest, seat.length);
+        }
+        double[] wins = new double[seats];
+        for (int turn = 1; turn < longest; turn++) {
+            // Nothing is left to share out once some seat has almost surely finished
+            double nobodyYet = 1;
+            for (double[] seat : cumulative) {
+                nobodyYet *= 1 - at(seat, turn - 1);
+            }
+            if (nobodyYet < SETTLED) {
+                break;
+            }
+            for (int seat = 0; seat < seats; seat++) {
+                double finishing = at(cumulative[seat], turn) - at(cumulative[seat], turn - 1);
+                if (finishing == 0) {
+                    continue;
+                }
+                for (int other = 0; other < seats && finishing != 0; other++) {
+                    if (other != seat) {
+                        finishing *= 1 - at(cumulative[other], other < seat ? turn : turn - 1);
+                    }
+                }
+                wins[seat] += finishing;
+            }
+        }
+        return wins;
+    }
+
+    // Entry [seat][rank - 1] is the chance of the seat finishing in that place, for
+    // independent seats given in the order they move, as in race(). On the seat's
+    // n-th turn the number of seats already ahead of it is a sum of independent
+    // yes/no outcomes, which is built up one other seat at a time.
+    public static double[][] ranks(double[]... cumulative) {
+        int seats = cumulative.length;
+        int longest = 0;
+        for (double[] seat : cumulative) {
+            longest = Math.max(longest, seat.length);
+        }
+        double[][] ranks = new double[seats][seats];
+        double[] ahead = new double[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            for (int turn = 1; turn < longest; turn++) {
+                double finishing = at(cumulative[seat], turn) - at(cumulative[seat], turn - 1);
+                if (finishing == 0) {
+                    continue;
+                }
+                Arrays.fill(ahead, 0);
+                ahead[0] = 1;
+                int counted = 0;
+                for (int other = 0; other < seats; other++) {
+                    if (other == seat) {
+                        continue;
+                    }
+                    double done = at(cumulative[other], other < seat ? turn : turn - 1);
+                    for (int count = ++counted; count > 0; count--) {
+                        ahead[count] = ahead[count] * (1 - done) + ahead[count - 1] * done;
+                    }
+                    ahead[0] *= 1 - done;
+                }
+                for (int rank = 0; rank < seats; rank++) {
+                    ranks[seat][rank] += finishing * ahead[rank];
+                }
+            }
+        }
+        return ranks;
+    }
+
+    // The distribution past its end has finished with whatever it reached
+    private static double at(double[] cumulative, int turn) {
+        return cumulative[Math.min(turn, cumulative.length - 1)];
+    }
+
+    // Expected turns, up to the truncated tail
+    public static double mean(double[] cumulative) {
+        double sum = 0;
+        for (double finished : cumulative) {
+            sum += 1 - finished;
+        }
+        return sum;
+    }
+}
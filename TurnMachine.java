@@ -0,0 +1,131 @@
+import javax.swing.Timer;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+// Turn flow as an explicit state machine. Allowed transitions live in one table,
+// each phase has a single handler, and every delayed step of a turn (AI thinking
+// time, dice and token animation, idle timeouts) runs on one shared Swing timer.
+public class TurnMachine {
+    public enum Phase {
+        AWAITING_ROLL,      // turn handed to a seat, waiting for the roll button, the AI or a timeout
+        ROLLING,            // dice animation
+        DECIDING_POWER_UP,  // roll known, power-up offered or decided
+        MOVING,             // rules applied, token animating
+        RESOLVING,          // finishing messages, turn passed on
+        FINISHED            // round over or not started yet
+    }
+
+    private static final Map<Phase, EnumSet<Phase>> TRANSITIONS = new EnumMap<>(Phase.class);
+    static {
+        TRANSITIONS.put(Phase.AWAITING_ROLL, EnumSet.of(Phase.ROLLING, Phase.RESOLVING));
+        TRANSITIONS.put(Phase.ROLLING, EnumSet.of(Phase.DECIDING_POWER_UP));
+        TRANSITIONS.put(Phase.DECIDING_POWER_UP, EnumSet.of(Phase.MOVING));
+        TRANSITIONS.put(Phase.MOVING, EnumSet.of(Phase.RESOLVING));
+        TRANSITIONS.put(Phase.RESOLVING, EnumSet.of(Phase.AWAITING_ROLL, Phase.FINISHED));
+        TRANSITIONS.put(Phase.FINISHED, EnumSet.of(Phase.AWAITING_ROLL));
+    }
+
+    private final Map<Phase, Runnable> handlers = new EnumMap<>(Phase.class);
+    private final Timer timer;
+    private Runnable pending;
+    private Phase phase = Phase.FINISHED;
+
+    // Latency bookkeeping, in nanoseconds
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final int[] phaseCounts = new int[Phase.values().length];
+    private long phaseStarted = System.nanoTime();
+    private long turnStarted;
+    private long totalTurnNanos;
+    private int turnCount;
+
+    public TurnMachine() {
+        timer = new Timer(0, e -> runPending());
+        timer.setRepeats(false);
+    }
+
+    public void on(Phase target, Runnable handler) {
+        handlers.put(target, handler);
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public boolean is(Phase expected) {
+        return phase == expected;
+    }
+
+    // Moves to the next phase and runs its handler; anything still scheduled is dropped
+    public void enter(Phase next) {
+        if (!TRANSITIONS.get(phase).contains(next)) {
+            throw new IllegalStateException("Cannot go from " + phase + " to " + next);
+        }
+        cancelPending();
+
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - phaseStarted;
+        phaseCounts[phase.ordinal()]++;
+        if (phase == Phase.RESOLVING) {
+            totalTurnNanos += now - turnStarted;
+            turnCount++;
+        }
+        if (next == Phase.AWAITING_ROLL) {
+            turnStarted = now;
+        }
+        phaseStarted = now;
+        phase = next;
+
+        Runnable handler = handlers.get(next);
+        if (handler != null) {
+            handler.run();
+        }
+    }
+
+    // Runs an action after a delay on the shared timer, replacing whatever was pending
+    public void schedule(int delayMillis, Runnable action) {
+        pending = action;
+        timer.setInitialDelay(Math.max(0, delayMillis));
+        timer.restart();
+    }
+
+    public void cancelPending() {
+        timer.stop();
+        pending = null;
+    }
+
+    // Abandons the current turn without running any handler, e.g. when a round is reset
+    public void reset() {
+        cancelPending();
+        phase = Phase.FINISHED;
+        phaseStarted = System.nanoTime();
+    }
+
+    private void runPending() {
+        Runnable action = pending;
+        pending = null;
+        if (action != null) {
+            action.run();
+        }
+    }
+
+    public double getAverageMillis(Phase measured) {
+        int count = phaseCounts[measured.ordinal()];
+        return count == 0 ? 0 : phaseNanos[measured.ordinal()] / 1e6 / count;
+    }
+
+    public double getAverageTurnMillis() {
+        return turnCount == 0 ? 0 : totalTurnNanos / 1e6 / turnCount;
+    }
+
+    public String describeLatency() {
+        StringBuilder summary = new StringBuilder("Turn latency: ")
+                .append(String.format("%.0f ms average over %d turns", getAverageTurnMillis(), turnCount));
+        for (Phase measured : Phase.values()) {
+            if (measured != Phase.FINISHED && phaseCounts[measured.ordinal()] > 0) {
+                summary.append(String.format(", %s %.0f ms", measured, getAverageMillis(measured)));
+            }
+        }
+        return summary.toString();
+    }
+}